@@ -1,6 +1,11 @@
+plugins {
+    id("me.champeau.jmh") version "0.7.1"
+}
+
 group = "me.machinemaker.lectern"
 description = "Core for a configuration library"
 
 dependencies {
     implementation("com.fasterxml.jackson.core:jackson-databind:2.12.5")
+    implementation("org.ow2.asm:asm:9.5")
 }
@@ -0,0 +1,205 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.benchmarks;
+
+import me.machinemaker.lectern.collection.ConfigField;
+import me.machinemaker.lectern.collection.FieldCollector;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares raw {@link java.lang.reflect.Field} access with the {@link ConfigField}
+ * accessors on a generated config class of 2,000 distinct fields, so every
+ * call goes to a different field, as it does when loading a large config.
+ * The method handle and var handle benchmarks measure the handle-based
+ * accessors {@link ConfigField} used before, which are slower at this scale
+ * because every handle is called from the same non-constant call site.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigFieldBenchmark {
+
+    static final int FIELDS = 2000;
+    private static final Class<?>[] TYPES = {int.class, long.class, double.class, boolean.class, String.class};
+
+    private Object config;
+    private Field[] fields;
+    private ConfigField.Value[] configFields;
+    private MethodHandle[] getters;
+    private MethodHandle[] setters;
+    private VarHandle[] varHandles;
+    private Object[] values;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        final Class<?> configClass = MethodHandles.lookup().defineClass(generateConfig());
+        this.config = configClass.getConstructor().newInstance();
+        final List<ConfigField> collected = FieldCollector.fields(configClass);
+        this.configFields = collected.toArray(new ConfigField.Value[0]);
+        this.fields = new Field[this.configFields.length];
+        this.getters = new MethodHandle[this.configFields.length];
+        this.setters = new MethodHandle[this.configFields.length];
+        this.varHandles = new VarHandle[this.configFields.length];
+        this.values = new Object[this.configFields.length];
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < this.configFields.length; i++) {
+            this.fields[i] = this.configFields[i].field();
+            this.getters[i] = lookup.unreflectGetter(this.fields[i]).asType(MethodType.methodType(Object.class, Object.class));
+            this.setters[i] = lookup.unreflectSetter(this.fields[i]).asType(MethodType.methodType(void.class, Object.class, Object.class));
+            this.varHandles[i] = lookup.unreflectVarHandle(this.fields[i]);
+            this.values[i] = valueFor(this.fields[i].getType(), i);
+        }
+    }
+
+    @Benchmark
+    public void reflectiveSet() throws IllegalAccessException {
+        for (int i = 0; i < this.fields.length; i++) {
+            this.fields[i].set(this.config, this.values[i]);
+        }
+    }
+
+    @Benchmark
+    public void configFieldSet() {
+        for (int i = 0; i < this.configFields.length; i++) {
+            this.configFields[i].set(this.config, this.values[i]);
+        }
+    }
+
+    @Benchmark
+    public void methodHandleSet() throws Throwable {
+        for (int i = 0; i < this.setters.length; i++) {
+            this.setters[i].invokeExact(this.config, this.values[i]);
+        }
+    }
+
+    @Benchmark
+    public void varHandleSet() {
+        for (int i = 0; i < this.varHandles.length; i++) {
+            this.varHandles[i].set(this.config, this.values[i]);
+        }
+    }
+
+    @Benchmark
+    public void configFieldPrimitiveSet() {
+        for (int i = 0; i < this.configFields.length; i++) {
+            final ConfigField.Value field = this.configFields[i];
+            final Class<?> type = field.field().getType();
+            if (type == int.class) {
+                field.setInt(this.config, i);
+            } else if (type == long.class) {
+                field.setLong(this.config, i);
+            } else if (type == double.class) {
+                field.setDouble(this.config, i);
+            } else if (type == boolean.class) {
+                field.setBoolean(this.config, true);
+            } else {
+                field.set(this.config, this.values[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void reflectiveGet(Blackhole blackhole) throws IllegalAccessException {
+        for (Field field : this.fields) {
+            blackhole.consume(field.get(this.config));
+        }
+    }
+
+    @Benchmark
+    public void configFieldGet(Blackhole blackhole) {
+        for (ConfigField.Value field : this.configFields) {
+            blackhole.consume(field.get(this.config));
+        }
+    }
+
+    @Benchmark
+    public void methodHandleGet(Blackhole blackhole) throws Throwable {
+        for (MethodHandle getter : this.getters) {
+            blackhole.consume((Object) getter.invokeExact(this.config));
+        }
+    }
+
+    @Benchmark
+    public void varHandleGet(Blackhole blackhole) {
+        for (VarHandle varHandle : this.varHandles) {
+            blackhole.consume(varHandle.get(this.config));
+        }
+    }
+
+    private static Object valueFor(Class<?> type, int index) {
+        if (type == int.class) {
+            return index;
+        } else if (type == long.class) {
+            return (long) index;
+        } else if (type == double.class) {
+            return (double) index;
+        } else if (type == boolean.class) {
+            return true;
+        }
+        return "value" + index;
+    }
+
+    /**
+     * Generates a public class in this package with {@link #FIELDS}
+     * public fields, cycling through {@link #TYPES}.
+     */
+    private static byte[] generateConfig() {
+        final String name = Type.getInternalName(ConfigFieldBenchmark.class) + "$GeneratedConfig";
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+        for (int i = 0; i < FIELDS; i++) {
+            writer.visitField(Opcodes.ACC_PUBLIC, "field" + i, Type.getDescriptor(TYPES[i % TYPES.length]), null, null).visitEnd();
+        }
+        final MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import me.machinemaker.lectern.ConfigurationNode;
+import me.machinemaker.lectern.SectionNode;
+import me.machinemaker.lectern.contexts.InvalidKeyHandler;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Builds a generated tree of about 200,000 nodes, like a per-region table,
+ * and reports the heap it retains per node as the {@code bytesPerNode}
+ * counter. {@link #baseline} builds the same tree from a model of the
+ * layout before compact nodes, so both are measured in the same run. Run
+ * with {@code -prof gc} to also see the bytes allocated per build.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:+UseSerialGC")
+public class NodeFootprintBenchmark {
+
+    static final int NODES = 200_000;
+    private static final JavaType INT_TYPE = TypeFactory.defaultInstance().constructType(int.class);
+    private static final JavaType STRING_TYPE = TypeFactory.defaultInstance().constructType(String.class);
+
+    @Param({"7", "20"})
+    int valuesPerSection;
+
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        this.keys = new String[this.valuesPerSection];
+        for (int i = 0; i < this.valuesPerSection; i++) {
+            this.keys[i] = "key-" + i;
+        }
+    }
+
+    @Benchmark
+    public ConfigurationNode compact(Footprint footprint) {
+        final ConfigurationNode root = new ConfigurationNode(Path.of("regions.yml"), new ObjectMapper(), InvalidKeyHandler.Preset.SILENT, '#', 2) {};
+        for (int s = 0; s < this.sections(); s++) {
+            final SectionNode section = root.addSection("region-" + s);
+            for (int i = 0; i < this.valuesPerSection; i++) {
+                if (i % 2 == 0) {
+                    section.addChild(this.keys[i], null, INT_TYPE, i);
+                } else {
+                    section.addChild(this.keys[i], null, STRING_TYPE, "value");
+                }
+            }
+        }
+        return footprint.retain(root, this.nodes());
+    }
+
+    @Benchmark
+    public Object baseline(Footprint footprint) {
+        final BaselineSection root = new BaselineSection("", null);
+        for (int s = 0; s < this.sections(); s++) {
+            final BaselineSection section = new BaselineSection("region-" + s, root);
+            root.children.put(section.key, section);
+            for (int i = 0; i < this.valuesPerSection; i++) {
+                final BaselineValue<?> value = i % 2 == 0 ? new BaselineValue<>(this.keys[i], section, INT_TYPE, i) : new BaselineValue<>(this.keys[i], section, STRING_TYPE, "value");
+                section.children.put(value.key, value);
+            }
+        }
+        return footprint.retain(root, this.nodes());
+    }
+
+    private int sections() {
+        return NODES / (this.valuesPerSection + 1);
+    }
+
+    private int nodes() {
+        return this.sections() * (this.valuesPerSection + 1);
+    }
+
+    /**
+     * Measures the heap retained by the last tree built in an iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double bytesPerNode;
+        private Object tree;
+        private int nodes;
+
+        <T> T retain(T tree, int nodes) {
+            this.tree = tree;
+            this.nodes = nodes;
+            return tree;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytesPerNode = 0;
+            this.tree = null;
+        }
+
+        @TearDown(Level.Iteration)
+        public void measure() {
+            final long withTree = usedHeap();
+            this.tree = null;
+            final long withoutTree = usedHeap();
+            this.bytesPerNode = (withTree - withoutTree) / (double) this.nodes;
+        }
+
+        private static long usedHeap() {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+            }
+            return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        }
+    }
+
+    /**
+     * The fields of a node before compact nodes, with
+     * the meta map every node created eagerly.
+     */
+    static class BaselineNode {
+
+        final String key;
+        final BaselineSection parent;
+        String description;
+        final Map<String, Object> meta = new HashMap<>();
+
+        BaselineNode(String key, BaselineSection parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+    }
+
+    /**
+     * A section before compact nodes, with a {@link LinkedHashMap} of children.
+     */
+    static final class BaselineSection extends BaselineNode {
+
+        final Map<String, BaselineNode> children = new LinkedHashMap<>();
+
+        BaselineSection(String key, BaselineSection parent) {
+            super(key, parent);
+        }
+    }
+
+    /**
+     * A value node before compact nodes, with its own type and validators
+     * and the value boxed.
+     */
+    static final class BaselineValue<T> extends BaselineNode {
+
+        final JavaType type;
+        List<Object> validators = List.copyOf(Collections.emptyList());
+        final T defaultValue;
+        T value;
+        Consumer<T> callback = t -> {};
+
+        BaselineValue(String key, BaselineSection parent, JavaType type, T defaultValue) {
+            super(key, parent);
+            this.type = type;
+            this.defaultValue = defaultValue;
+            this.value = defaultValue;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An insertion-ordered map for small sections. Up to {@link #MAX_ARRAY_SIZE}
+ * entries are kept in two arrays and looked up linearly, which takes far less
+ * memory than a {@link LinkedHashMap}. Larger maps move into a {@link LinkedHashMap}.
+ * Not thread-safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class ArrayMap<K, V> extends AbstractMap<K, V> {
+
+    static final int MAX_ARRAY_SIZE = 8;
+    private static final Object[] EMPTY = {};
+
+    private Object[] keys = EMPTY;
+    private Object[] values = EMPTY;
+    private int size;
+    private Map<K, V> large;
+
+    @Override
+    public int size() {
+        return this.large != null ? this.large.size() : this.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.large != null ? this.large.containsKey(key) : this.indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (this.large != null) {
+            return this.large.get(key);
+        }
+        final int index = this.indexOf(key);
+        return index >= 0 ? (V) this.values[index] : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (this.large != null) {
+            return this.large.put(key, value);
+        }
+        final int index = this.indexOf(key);
+        if (index >= 0) {
+            final V previous = (V) this.values[index];
+            this.values[index] = value;
+            return previous;
+        }
+        if (this.size == MAX_ARRAY_SIZE) {
+            this.large = new LinkedHashMap<>(this);
+            this.keys = EMPTY;
+            this.values = EMPTY;
+            this.size = 0;
+            return this.large.put(key, value);
+        }
+        if (this.size == this.keys.length) {
+            final int capacity = Math.min(MAX_ARRAY_SIZE, Math.max(2, this.size * 2));
+            this.keys = Arrays.copyOf(this.keys, capacity);
+            this.values = Arrays.copyOf(this.values, capacity);
+        }
+        this.keys[this.size] = key;
+        this.values[this.size++] = value;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (this.large != null) {
+            return this.large.remove(key);
+        }
+        final int index = this.indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        final V previous = (V) this.values[index];
+        this.removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        this.keys = EMPTY;
+        this.values = EMPTY;
+        this.size = 0;
+        this.large = null;
+    }
+
+    @Override
+    public @NotNull Set<K> keySet() {
+        if (this.large != null) {
+            return this.large.keySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<K> iterator() {
+                return new ArrayIterator<>(ArrayMap.this.keys, ArrayMap.this.size);
+            }
+
+            @Override
+            public int size() {
+                return ArrayMap.this.size;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull Collection<V> values() {
+        if (this.large != null) {
+            return this.large.values();
+        }
+        return new AbstractCollection<>() {
+            @Override
+            public @NotNull Iterator<V> iterator() {
+                return new ArrayIterator<>(ArrayMap.this.values, ArrayMap.this.size);
+            }
+
+            @Override
+            public int size() {
+                return ArrayMap.this.size;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        if (this.large != null) {
+            return this.large.entrySet();
+        }
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<Entry<K, V>> iterator() {
+                final Iterator<K> keys = new ArrayIterator<>(ArrayMap.this.keys, ArrayMap.this.size);
+                final Iterator<V> values = new ArrayIterator<>(ArrayMap.this.values, ArrayMap.this.size);
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        return new SimpleImmutableEntry<>(keys.next(), values.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ArrayMap.this.size;
+            }
+        };
+    }
+
+    private int indexOf(Object key) {
+        for (int i = 0; i < this.size; i++) {
+            if (Objects.equals(this.keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        final int moved = this.size - index - 1;
+        System.arraycopy(this.keys, index + 1, this.keys, index, moved);
+        System.arraycopy(this.values, index + 1, this.values, index, moved);
+        this.keys[--this.size] = null;
+        this.values[this.size] = null;
+    }
+
+    /**
+     * Iterates the used part of an array. Like {@link LinkedHashMap}, the map
+     * must not be changed while iterating, but it isn't detected here.
+     */
+    private static final class ArrayIterator<E> implements Iterator<E> {
+
+        private final Object[] array;
+        private final int size;
+        private int index;
+
+        private ArrayIterator(@NotNull Object[] array, int size) {
+            this.array = array;
+            this.size = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < this.size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (this.index >= this.size) {
+                throw new NoSuchElementException();
+            }
+            return (E) this.array[this.index++];
+        }
+    }
+}
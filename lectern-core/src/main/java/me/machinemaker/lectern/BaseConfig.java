@@ -43,6 +43,7 @@ public abstract class BaseConfig implements Reloadable {
 
     private Path file;
     private ConfigurationNode rootNode;
+    private FieldBinder<BaseConfig> binder;
 
     @Override
     public @Nullable Path file() {
@@ -57,7 +58,7 @@ public abstract class BaseConfig implements Reloadable {
     @Override
     public void save() {
         this.checkInit();
-        loadConfigTree(this, this.rootNode);
+        this.loadConfigTree();
         this.rootNode.save();
     }
 
@@ -65,7 +66,17 @@ public abstract class BaseConfig implements Reloadable {
     public void reload() {
         this.checkInit();
         this.rootNode.reload();
-        loadFields(this, this.rootNode);
+        this.loadFields();
+    }
+
+    @Override
+    public boolean reloadIfChanged() {
+        this.checkInit();
+        if (this.rootNode.reloadIfChanged()) {
+            this.loadFields();
+            return true;
+        }
+        return false;
     }
 
     @Override
@@ -115,13 +126,37 @@ public abstract class BaseConfig implements Reloadable {
     }
 
     public final void init(Path parentDir, boolean justCreate) {
+        this.setup(parentDir);
+        this.handleFile(justCreate);
+    }
+
+    /**
+     * Initializes this configuration from its existing file,
+     * without creating or saving the file.
+     *
+     * @param parentDir the parent directory of the config file
+     */
+    final void initFromFile(Path parentDir) {
+        this.setup(parentDir);
+        this.rootNode.reload();
+        this.loadFields();
+    }
+
+    private void setup(Path parentDir) {
         if (this.rootNode != null) {
             throw new ConfigAlreadyInitializedException(this.rootNode);
         }
         final Annotation configurationAnnotation = this.getConfigurationAnnotation();
         createRootNode(parentDir, configurationAnnotation, configurationAnnotation.annotationType().getAnnotation(Configuration.class).supplier());
-        createDefaultSectionNodeSchema(this, this.rootNode);
-        this.handleFile(justCreate);
+        final ConfigBinder<BaseConfig> configBinder = ConfigBinder.find(this.getClass());
+        if (configBinder != null) {
+            configBinder.createSchema(this, this.rootNode);
+            this.binder = configBinder;
+        } else {
+            createDefaultSectionNodeSchema(this, this.rootNode);
+            this.binder = BinderGenerator.find(this.getClass());
+        }
+        this.rootNode.warmUp();
     }
 
     protected void handleFile(boolean justCreate) {
@@ -130,7 +165,7 @@ public abstract class BaseConfig implements Reloadable {
         } else if (justCreate && Files.exists(this.file)) {
             throw new IllegalArgumentException("Cannot use the justCreate if the file is already created");
         } else {
-            loadConfigTree(this, this.rootNode);
+            this.loadConfigTree();
             try {
                 Files.createDirectories(this.file.getParent());
                 Files.createFile(this.file);
@@ -155,12 +190,11 @@ public abstract class BaseConfig implements Reloadable {
 
     protected void createDefaultSectionNodeSchema(Object configInstance, SectionNode sectionNode) {
         sectionNode.clear();
-        final FieldCollector collector = new FieldCollector(configInstance.getClass());
-        for (ConfigField configField : collector.collectFields()) {
+        for (ConfigField configField : FieldCollector.fields(configInstance.getClass())) {
             if (configField instanceof ConfigField.Section section) {
                 SectionNode newSection = sectionNode.addSection(section.key(), section.description());
-                newSection.meta().putAll(section.meta());
-                createDefaultSectionNodeSchema(section.getOrCreateInstance(), newSection);
+                newSection.addMeta(section.meta());
+                createDefaultSectionNodeSchema(section.getOrCreateInstance(configInstance), newSection);
             } else if (configField instanceof ConfigField.Value value) {
                 setupValueNodeSchema(sectionNode, value, value.get(configInstance), configInstance);
             }
@@ -171,9 +205,9 @@ public abstract class BaseConfig implements Reloadable {
     @MustBeInvokedByOverriders
     protected <T> ValueNode<T> setupValueNodeSchema(SectionNode sectionNode, ConfigField.Value field, T value, Object configInstance) {
         ValueNode<T> valueNode = sectionNode.set(field.key(), field.type(), value);
-        valueNode.callback = val -> field.set(configInstance, val);
+        valueNode.callback = val -> setCoerced(field, configInstance, val);
         valueNode.description(field.description());
-        valueNode.meta().putAll(field.meta());
+        valueNode.addMeta(field.meta());
         List<ValueValidator<T>> valueValidators = new ArrayList<>();
         for (ValueValidator<?> validator : field.validators()) {
             valueValidators.add((ValueValidator<T>) validator);
@@ -182,24 +216,37 @@ public abstract class BaseConfig implements Reloadable {
         return valueNode;
     }
 
+    private void loadFields() {
+        if (this.binder != null) {
+            this.binder.loadFields(this, this.rootNode);
+        } else {
+            loadFields(this, this.rootNode);
+        }
+    }
+
+    private void loadConfigTree() {
+        if (this.binder != null) {
+            this.binder.loadConfigTree(this, this.rootNode);
+        } else {
+            loadConfigTree(this, this.rootNode);
+        }
+    }
+
     private static void loadFields(Object configInstance, SectionNode sectionNode) {
-        final FieldCollector collector = new FieldCollector(configInstance.getClass());
-        for (ConfigField configField : collector.collectFields()) {
+        for (ConfigField configField : FieldCollector.fields(configInstance.getClass())) {
             final Node node = sectionNode.getNode(configField.key());
             if (node == null) {
                 throw new IllegalStateException(configField.key() + " is null in the configuration tree");
             }
             if (configField instanceof ConfigField.Section section) {
                 if (node instanceof SectionNode subSectionNode) {
-                    var instance = section.getOrCreateInstance();
-                    section.set(configInstance, instance);
-                    loadFields(instance, subSectionNode);
+                    loadFields(section.getOrCreateInstance(configInstance), subSectionNode);
                 } else {
                     throw new IllegalStateException(node + " is not a section node");
                 }
             } else if (configField instanceof ConfigField.Value value) {
                 if (node instanceof ValueNode<?> valueNode) {
-                    setFieldValue(value, configInstance, configInstance.getClass(), valueNode, false);
+                    setFieldValue(value, configInstance, valueNode);
                 } else {
                     throw new IllegalStateException(node + " is not a value node");
                 }
@@ -207,36 +254,33 @@ public abstract class BaseConfig implements Reloadable {
         }
     }
 
-    private static void setFieldValue(ConfigField.Value value, Object instance, Class<?> instanceType, ValueNode<?> valueNode, boolean cast) {
-        try {
-            if (valueNode.value() != null) {
-                if (valueNode.value().getClass() == Double.class && value.type().getRawClass() == float.class) {
-                    value.set(instance, ((Double) valueNode.value()).floatValue());
-                    return;
-                }
-
-                if (valueNode.value().getClass() == Integer.class && value.type().getRawClass() == long.class) {
-                    value.set(instance, ((Integer) valueNode.value()).longValue());
-                    return;
-                }
-            }
+    private static void setFieldValue(ConfigField.Value value, Object instance, ValueNode<?> valueNode) {
+        final Class<?> fieldType = value.field().getType();
+        if (valueNode instanceof IntValueNode intNode && fieldType == int.class) {
+            value.setInt(instance, intNode.intValue());
+            return;
+        } else if (valueNode instanceof LongValueNode longNode && fieldType == long.class) {
+            value.setLong(instance, longNode.longValue());
+            return;
+        } else if (valueNode instanceof DoubleValueNode doubleNode && fieldType == double.class) {
+            value.setDouble(instance, doubleNode.doubleValue());
+            return;
+        } else if (valueNode instanceof BooleanValueNode booleanNode && fieldType == boolean.class) {
+            value.setBoolean(instance, booleanNode.booleanValue());
+            return;
+        }
+        setCoerced(value, instance, valueNode.value());
+    }
 
-            if (cast) {
-                value.set(instance, value.type().getRawClass().cast(valueNode.value()));
-            } else {
-                value.set(instance, valueNode.value());
-            }
-        } catch (IllegalArgumentException | ClassCastException e) {
-            if (!cast) {
-                setFieldValue(value, instance, instanceType, valueNode, true);
-            }
-            throw new IllegalStateException(String.format("Unable to set value in %s for %s", instanceType.getCanonicalName(), value.key()), e);
+    private static void setCoerced(ConfigField.Value value, Object instance, @Nullable Object nodeValue) {
+        if (!value.trySet(instance, nodeValue)) {
+            final String message = String.format("Unable to set value in %s for %s", instance.getClass().getCanonicalName(), value.key());
+            throw new IllegalStateException(nodeValue == null ? message : message + " to " + nodeValue);
         }
     }
 
     private static void loadConfigTree(Object configInstance, SectionNode sectionNode) {
-        final FieldCollector collector = new FieldCollector(configInstance.getClass());
-        for (ConfigField configField : collector.collectFields()) {
+        for (ConfigField configField : FieldCollector.fields(configInstance.getClass())) {
             final Node node = sectionNode.getNode(configField.key());
             if (node == null) {
                 throw new IllegalStateException(configField.key() + " is null in the configuration tree");
@@ -249,7 +293,7 @@ public abstract class BaseConfig implements Reloadable {
                 }
             } else if (configField instanceof ConfigField.Value value) {
                 if (node instanceof ValueNode<?> valueNode) {
-                    valueNode.setValue(value.get(configInstance));
+                    setNodeValue(value, configInstance, valueNode);
                 } else {
                     throw new IllegalStateException(node + " is not a value node");
                 }
@@ -257,6 +301,21 @@ public abstract class BaseConfig implements Reloadable {
         }
     }
 
+    private static void setNodeValue(ConfigField.Value value, Object instance, ValueNode<?> valueNode) {
+        final Class<?> fieldType = value.field().getType();
+        if (valueNode instanceof IntValueNode intNode && fieldType == int.class) {
+            intNode.intValue(value.getInt(instance));
+        } else if (valueNode instanceof LongValueNode longNode && fieldType == long.class) {
+            longNode.longValue(value.getLong(instance));
+        } else if (valueNode instanceof DoubleValueNode doubleNode && fieldType == double.class) {
+            doubleNode.doubleValue(value.getDouble(instance));
+        } else if (valueNode instanceof BooleanValueNode booleanNode && fieldType == boolean.class) {
+            booleanNode.booleanValue(value.getBoolean(instance));
+        } else {
+            valueNode.setValue(value.get(instance));
+        }
+    }
+
     /**
      * Instantiates a new Configuration class
      *
@@ -285,6 +344,19 @@ public abstract class BaseConfig implements Reloadable {
         return configInstance;
     }
 
+    /**
+     * Instantiates a new Configuration class and loads it from its existing file.
+     *
+     * @param configClass the class to instantiate a new instance of
+     * @param parentDir the parent directory for the file for this config
+     * @return the new instance
+     */
+    static <C extends BaseConfig> C load(@NotNull Class<C> configClass, @NotNull Path parentDir) {
+        final C configInstance = BaseConfig.createInstance(configClass);
+        configInstance.initFromFile(parentDir);
+        return configInstance;
+    }
+
     private static <C extends BaseConfig> C createInstance(@NotNull Class<C> configClass) {
         try {
             Constructor<C> ctor = configClass.getDeclaredConstructor();
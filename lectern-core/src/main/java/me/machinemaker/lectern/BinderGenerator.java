@@ -0,0 +1,312 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import me.machinemaker.lectern.collection.ConfigField;
+import me.machinemaker.lectern.collection.FieldCollector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Generates a {@link FieldBinder} for config classes without a {@link ConfigBinder}
+ * generated by {@code lectern-processor}. The binder is defined as a hidden class
+ * nested with the config class, so it reads and writes the fields directly.
+ * Classes that can't be bound that way (final fields, inaccessible types, no
+ * no-args section constructors, etc.) are left to reflection.
+ *
+ * <p>Set the {@code lectern.disableRuntimeBinders} system property to
+ * {@code true} to always use reflection.</p>
+ */
+final class BinderGenerator {
+
+    static final String DISABLE_PROPERTY = "lectern.disableRuntimeBinders";
+
+    private static final ClassValue<Optional<FieldBinder<?>>> BINDERS = new ClassValue<>() {
+        @Override
+        protected Optional<FieldBinder<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(generate(type));
+        }
+    };
+
+    private static final String FIELD_BINDER = Type.getInternalName(FieldBinder.class);
+    private static final String SECTION_NODE_DESC = Type.getDescriptor(SectionNode.class);
+    private static final String FIELD_BINDER_DESC = Type.getDescriptor(FieldBinder.class);
+    private static final String BIND_DESC = "(Ljava/lang/Object;" + SECTION_NODE_DESC + ")V";
+    private static final String NODE_LOOKUP_DESC = "(" + SECTION_NODE_DESC + "Ljava/lang/String;)";
+    private static final String FUNCTION_DESC = Type.getDescriptor(Function.class);
+
+    private BinderGenerator() {
+    }
+
+    /**
+     * Gets the generated binder for a config or section class.
+     *
+     * @param type the config or section class
+     * @return the binder or null if the class can't be bound without reflection
+     */
+    @SuppressWarnings("unchecked")
+    static <C> @Nullable FieldBinder<C> find(@NotNull Class<? extends C> type) {
+        if (Boolean.getBoolean(DISABLE_PROPERTY)) {
+            return null;
+        }
+        return (FieldBinder<C>) BINDERS.get(type).orElse(null);
+    }
+
+    private static @Nullable FieldBinder<?> generate(@NotNull Class<?> type) {
+        final List<ConfigField> fields = FieldCollector.fields(type);
+        final List<FieldBinder<?>> sectionBinders = new ArrayList<>();
+        for (ConfigField configField : fields) {
+            if (Modifier.isFinal(configField.field().getModifiers())) {
+                return null;
+            }
+            if (configField instanceof ConfigField.Section section) {
+                final FieldBinder<?> sectionBinder = find(section.sectionType());
+                if (sectionBinder == null || !hasNoArgsConstructor(section.sectionType())) {
+                    return null;
+                }
+                sectionBinders.add(sectionBinder);
+            } else if (!isAccessible(configField.field().getType(), type)) {
+                return null;
+            }
+        }
+
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            final MethodHandles.Lookup binderLookup = lookup.defineHiddenClass(write(type, fields), true, MethodHandles.Lookup.ClassOption.NESTMATE);
+            return (FieldBinder<?>) binderLookup.findConstructor(binderLookup.lookupClass(), MethodType.methodType(void.class, FieldBinder[].class)).invoke(sectionBinders.toArray(new FieldBinder<?>[0]));
+        } catch (IllegalAccessException | LinkageError e) {
+            return null;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a binder for " + type.getName(), e);
+        }
+    }
+
+    private static byte[] write(@NotNull Class<?> type, @NotNull List<ConfigField> fields) {
+        final String binderName = Type.getInternalName(type) + "$$LecternBinder";
+        final String typeName = Type.getInternalName(type);
+        // frames only merge identical locals, so computing them never needs to load other classes
+        final ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, binderName, null, FIELD_BINDER, null);
+
+        int sectionIndex = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            final ConfigField configField = fields.get(i);
+            if (configField instanceof ConfigField.Section) {
+                writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "binder" + sectionIndex++, FIELD_BINDER_DESC, null, null).visitEnd();
+            } else if (!configField.field().getType().isPrimitive()) {
+                writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "coercion" + i, FUNCTION_DESC, null, null).visitEnd();
+            }
+        }
+
+        MethodVisitor method = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "([" + FIELD_BINDER_DESC + ")V", null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitLdcInsn(Type.getType(type));
+        method.visitMethodInsn(Opcodes.INVOKESPECIAL, FIELD_BINDER, "<init>", "(Ljava/lang/Class;)V", false);
+        for (int i = 0; i < sectionIndex; i++) {
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitVarInsn(Opcodes.ALOAD, 1);
+            method.visitLdcInsn(i);
+            method.visitInsn(Opcodes.AALOAD);
+            method.visitFieldInsn(Opcodes.PUTFIELD, binderName, "binder" + i, FIELD_BINDER_DESC);
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            final Class<?> fieldType = fields.get(i).field().getType();
+            if (!(fields.get(i) instanceof ConfigField.Section) && !fieldType.isPrimitive()) {
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitLdcInsn(Type.getType(fieldType));
+                method.visitMethodInsn(Opcodes.INVOKESTATIC, FIELD_BINDER, "coercion", "(Ljava/lang/Class;)" + FUNCTION_DESC, false);
+                method.visitFieldInsn(Opcodes.PUTFIELD, binderName, "coercion" + i, FUNCTION_DESC);
+            }
+        }
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        method = writer.visitMethod(Opcodes.ACC_PUBLIC, "loadFields", BIND_DESC, null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 1);
+        method.visitTypeInsn(Opcodes.CHECKCAST, typeName);
+        method.visitVarInsn(Opcodes.ASTORE, 3);
+        sectionIndex = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            final ConfigField configField = fields.get(i);
+            final Field field = configField.field();
+            final String fieldDesc = Type.getDescriptor(field.getType());
+            if (configField instanceof ConfigField.Section section) {
+                // existing section instances are reused, so references to them stay valid
+                final String sectionTypeName = Type.getInternalName(section.sectionType());
+                final Label present = new Label();
+                method.visitVarInsn(Opcodes.ALOAD, 3);
+                method.visitFieldInsn(Opcodes.GETFIELD, typeName, field.getName(), fieldDesc);
+                method.visitJumpInsn(Opcodes.IFNONNULL, present);
+                method.visitVarInsn(Opcodes.ALOAD, 3);
+                method.visitTypeInsn(Opcodes.NEW, sectionTypeName);
+                method.visitInsn(Opcodes.DUP);
+                method.visitMethodInsn(Opcodes.INVOKESPECIAL, sectionTypeName, "<init>", "()V", false);
+                method.visitFieldInsn(Opcodes.PUTFIELD, typeName, field.getName(), fieldDesc);
+                method.visitLabel(present);
+                visitSectionBinder(method, binderName, typeName, configField, sectionIndex++);
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, "loadFields", BIND_DESC, false);
+            } else if (isUnboxed(field.getType())) {
+                method.visitVarInsn(Opcodes.ALOAD, 3);
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitVarInsn(Opcodes.ALOAD, 2);
+                method.visitLdcInsn(configField.key());
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, "get" + capitalize(field.getType()), NODE_LOOKUP_DESC + fieldDesc, false);
+                method.visitFieldInsn(Opcodes.PUTFIELD, typeName, field.getName(), fieldDesc);
+            } else {
+                method.visitVarInsn(Opcodes.ALOAD, 3);
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitVarInsn(Opcodes.ALOAD, 2);
+                method.visitLdcInsn(configField.key());
+                method.visitMethodInsn(Opcodes.INVOKESTATIC, FIELD_BINDER, "valueNode", NODE_LOOKUP_DESC + Type.getDescriptor(ValueNode.class), false);
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(ValueNode.class), "value", "()Ljava/lang/Object;", false);
+                visitConvert(method, binderName, field.getType(), configField.key(), "coercion" + i);
+                method.visitFieldInsn(Opcodes.PUTFIELD, typeName, field.getName(), fieldDesc);
+            }
+        }
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        method = writer.visitMethod(Opcodes.ACC_PUBLIC, "loadConfigTree", BIND_DESC, null, null);
+        method.visitCode();
+        method.visitVarInsn(Opcodes.ALOAD, 1);
+        method.visitTypeInsn(Opcodes.CHECKCAST, typeName);
+        method.visitVarInsn(Opcodes.ASTORE, 3);
+        sectionIndex = 0;
+        for (ConfigField configField : fields) {
+            final Field field = configField.field();
+            if (configField instanceof ConfigField.Section) {
+                visitSectionBinder(method, binderName, typeName, configField, sectionIndex++);
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, "loadConfigTree", BIND_DESC, false);
+            } else {
+                method.visitVarInsn(Opcodes.ALOAD, 0);
+                method.visitVarInsn(Opcodes.ALOAD, 2);
+                method.visitLdcInsn(configField.key());
+                method.visitVarInsn(Opcodes.ALOAD, 3);
+                method.visitFieldInsn(Opcodes.GETFIELD, typeName, field.getName(), Type.getDescriptor(field.getType()));
+                if (isUnboxed(field.getType())) {
+                    method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, "set" + capitalize(field.getType()), "(" + SECTION_NODE_DESC + "Ljava/lang/String;" + Type.getDescriptor(field.getType()) + ")V", false);
+                } else {
+                    visitBox(method, field.getType());
+                    method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, "setValue", "(" + SECTION_NODE_DESC + "Ljava/lang/String;Ljava/lang/Object;)V", false);
+                }
+            }
+        }
+        method.visitInsn(Opcodes.RETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Pushes the section binder, the section instance and the section node.
+     */
+    private static void visitSectionBinder(@NotNull MethodVisitor method, @NotNull String binderName, @NotNull String typeName, @NotNull ConfigField configField, int sectionIndex) {
+        method.visitVarInsn(Opcodes.ALOAD, 0);
+        method.visitFieldInsn(Opcodes.GETFIELD, binderName, "binder" + sectionIndex, FIELD_BINDER_DESC);
+        method.visitVarInsn(Opcodes.ALOAD, 3);
+        method.visitFieldInsn(Opcodes.GETFIELD, typeName, configField.field().getName(), Type.getDescriptor(configField.field().getType()));
+        method.visitVarInsn(Opcodes.ALOAD, 2);
+        method.visitLdcInsn(configField.key());
+        method.visitMethodInsn(Opcodes.INVOKESTATIC, FIELD_BINDER, "sectionNode", NODE_LOOKUP_DESC + SECTION_NODE_DESC, false);
+    }
+
+    /**
+     * Converts the node value on top of the stack to the field type,
+     * with the binder below it. Reference types use the coercion
+     * the binder created for the field.
+     */
+    private static void visitConvert(@NotNull MethodVisitor method, @NotNull String binderName, @NotNull Class<?> fieldType, @NotNull String key, @NotNull String coercionField) {
+        if (fieldType.isPrimitive()) {
+            method.visitLdcInsn(key);
+            final String name = "to" + capitalize(fieldType);
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, name, "(Ljava/lang/Object;Ljava/lang/String;)" + Type.getDescriptor(fieldType), false);
+        } else {
+            method.visitVarInsn(Opcodes.ALOAD, 0);
+            method.visitFieldInsn(Opcodes.GETFIELD, binderName, coercionField, FUNCTION_DESC);
+            method.visitLdcInsn(key);
+            method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, FIELD_BINDER, "cast", "(Ljava/lang/Object;" + FUNCTION_DESC + "Ljava/lang/String;)Ljava/lang/Object;", false);
+            method.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(fieldType));
+        }
+    }
+
+    private static void visitBox(@NotNull MethodVisitor method, @NotNull Class<?> fieldType) {
+        if (fieldType.isPrimitive()) {
+            final Type boxed = Type.getType(MethodType.methodType(fieldType).wrap().returnType());
+            method.visitMethodInsn(Opcodes.INVOKESTATIC, boxed.getInternalName(), "valueOf", "(" + Type.getDescriptor(fieldType) + ")" + boxed.getDescriptor(), false);
+        }
+    }
+
+    /**
+     * Checks if a field type is copied to and from an unboxed node.
+     */
+    private static boolean isUnboxed(@NotNull Class<?> fieldType) {
+        return fieldType == int.class || fieldType == long.class || fieldType == double.class || fieldType == boolean.class;
+    }
+
+    private static @NotNull String capitalize(@NotNull Class<?> primitiveType) {
+        return Character.toUpperCase(primitiveType.getName().charAt(0)) + primitiveType.getName().substring(1);
+    }
+
+    private static boolean hasNoArgsConstructor(@NotNull Class<?> type) {
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static boolean isAccessible(@NotNull Class<?> type, @NotNull Class<?> from) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || (type.getClassLoader() == from.getClassLoader() && type.getPackageName().equals(from.getPackageName()))) {
+            return true;
+        }
+        for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+            if (!Modifier.isPublic(current.getModifiers())) {
+                return false;
+            }
+        }
+        return type.getModule().isExported(type.getPackageName(), from.getModule());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import me.machinemaker.lectern.annotations.Meta;
+import me.machinemaker.lectern.validations.FieldValueValidator;
+import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * A {@link FieldBinder} which also creates the node schema for a config
+ * or section class without going through {@link me.machinemaker.lectern.collection.FieldCollector}.
+ * Implementations are generated by {@code lectern-processor} and named after
+ * the config class with {@link #BINDER_SUFFIX} appended, with {@code _} separating
+ * nested class names.
+ *
+ * @param <C> the config or section type
+ */
+public abstract class ConfigBinder<C> extends FieldBinder<C> {
+
+    /**
+     * The suffix added to the flattened name of a config class
+     * to get the name of its generated binder.
+     */
+    public static final String BINDER_SUFFIX = "_LecternBinder";
+
+    private static final ClassValue<Optional<ConfigBinder<?>>> BINDERS = new ClassValue<>() {
+        @Override
+        protected Optional<ConfigBinder<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(createBinder(type));
+        }
+    };
+
+    private final Map<String, JavaType> fieldTypes = new ConcurrentHashMap<>();
+
+    protected ConfigBinder(@NotNull Class<C> type) {
+        super(type);
+    }
+
+    /**
+     * Adds the nodes for each field of the instance to the section node.
+     *
+     * @param instance the instance to read the default values from
+     * @param sectionNode the section node to add the nodes to
+     */
+    public abstract void createSchema(@NotNull C instance, @NotNull SectionNode sectionNode);
+
+    protected final @NotNull SectionNode section(@NotNull SectionNode sectionNode, @NotNull String key, @Nullable String description, @NotNull Map<String, Object> meta) {
+        final SectionNode newSection = sectionNode.addSection(key, description);
+        newSection.addMeta(meta);
+        return newSection;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final @NotNull ValueNode<?> value(@NotNull SectionNode sectionNode, @NotNull String fieldName, @NotNull String key, @Nullable String description, @Nullable Object value, @NotNull Consumer<Object> callback, @NotNull List<ValueValidator<?>> validators, @NotNull Map<String, Object> meta) {
+        final JavaType type = this.fieldTypes.computeIfAbsent(fieldName, name -> TypeFactory.defaultInstance().constructType(this.field(name).getGenericType()));
+        final ValueNode<Object> valueNode = sectionNode.set(key, type, value);
+        valueNode.callback = callback;
+        valueNode.description(description);
+        valueNode.addMeta(meta);
+        final List<ValueValidator<Object>> valueValidators = new ArrayList<>();
+        for (ValueValidator<?> validator : validators) {
+            valueValidators.add((ValueValidator<Object>) validator);
+        }
+        valueNode.validators(valueValidators);
+        return valueNode;
+    }
+
+    /**
+     * Creates the validator for an annotation on a field. The field and
+     * annotation are looked up once, when the binder is created.
+     *
+     * @param validator the validator
+     * @param fieldName the name of the field in {@link #type()}
+     * @param annotationType the validation annotation
+     * @return the validator
+     */
+    protected final @NotNull ValueValidator<?> validator(@NotNull FieldValueValidator<?, ?> validator, @NotNull String fieldName, @NotNull Class<? extends Annotation> annotationType) {
+        final Field field = this.field(fieldName);
+        return validator.toWrapper(field, field.getAnnotation(annotationType));
+    }
+
+    /**
+     * Collects the {@link Meta} annotations on a field.
+     *
+     * @param fieldName the name of the field in {@link #type()}
+     * @param annotationTypes the annotations annotated with {@link Meta}
+     * @return the meta map
+     */
+    @SafeVarargs
+    protected final @NotNull Map<String, Object> meta(@NotNull String fieldName, @NotNull Class<? extends Annotation>... annotationTypes) {
+        if (annotationTypes.length == 0) {
+            return Collections.emptyMap();
+        }
+        final Field field = this.field(fieldName);
+        final Map<String, Object> meta = new HashMap<>();
+        for (Class<? extends Annotation> annotationType : annotationTypes) {
+            meta.put(annotationType.getAnnotation(Meta.class).value(), field.getAnnotation(annotationType));
+        }
+        return Collections.unmodifiableMap(meta);
+    }
+
+    private @NotNull Field field(@NotNull String fieldName) {
+        try {
+            return this.type().getDeclaredField(fieldName);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("Could not find " + fieldName + " in " + this.type().getName(), e);
+        }
+    }
+
+    /**
+     * Gets the binder for a config class.
+     *
+     * @param type the config class
+     * @return the binder or null if none was generated
+     */
+    @SuppressWarnings("unchecked")
+    static <C> @Nullable ConfigBinder<C> find(@NotNull Class<? extends C> type) {
+        return (ConfigBinder<C>) BINDERS.get(type).orElse(null);
+    }
+
+    private static @Nullable ConfigBinder<?> createBinder(@NotNull Class<?> type) {
+        final Class<?> binderClass;
+        try {
+            binderClass = Class.forName(binderName(type), true, type.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!ConfigBinder.class.isAssignableFrom(binderClass)) {
+            throw new IllegalStateException(binderClass.getName() + " does not extend " + ConfigBinder.class.getName());
+        }
+        try {
+            final Constructor<?> ctor = binderClass.getDeclaredConstructor();
+            ctor.trySetAccessible();
+            return (ConfigBinder<?>) ctor.newInstance();
+        } catch (InvocationTargetException | NoSuchMethodException | InstantiationException | IllegalAccessException e) {
+            throw new IllegalStateException("Could not construct new instance of " + binderClass.getSimpleName(), e);
+        }
+    }
+
+    private static @NotNull String binderName(@NotNull Class<?> type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        Class<?> enclosing = type.getEnclosingClass();
+        while (enclosing != null) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingClass();
+        }
+        final String packageName = type.getPackageName();
+        return (packageName.isEmpty() ? "" : packageName + ".") + name + BINDER_SUFFIX;
+    }
+}
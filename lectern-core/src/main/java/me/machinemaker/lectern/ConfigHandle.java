@@ -0,0 +1,103 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * Holds the current instance of a configuration. Reloads bind the file into
+ * a fresh instance and only publish it once it is fully loaded and valid, so
+ * readers never block and never see a partially reloaded configuration.
+ * <p>
+ * Fresh instances are created with the no-args constructor and loaded
+ * straight from the file; overrides of {@link BaseConfig#init(Path)} are
+ * only called for the first instance.
+ *
+ * @param <C> the configuration type
+ */
+public final class ConfigHandle<C extends BaseConfig> implements Reloadable {
+
+    private final Class<C> configClass;
+    private final Path parentDir;
+    private volatile C config;
+
+    private ConfigHandle(@NotNull Class<C> configClass, @NotNull Path parentDir, @NotNull C config) {
+        this.configClass = configClass;
+        this.parentDir = parentDir;
+        this.config = config;
+    }
+
+    /**
+     * Creates a handle with a new, initialized instance of a configuration class.
+     *
+     * @param configClass the configuration class
+     * @param parentDir the parent directory for the file for this config
+     * @param <C> the configuration type
+     * @return the new handle
+     * @see BaseConfig#create(Class, Path)
+     */
+    public static <C extends BaseConfig> @NotNull ConfigHandle<C> create(@NotNull Class<C> configClass, @NotNull Path parentDir) {
+        return new ConfigHandle<>(configClass, parentDir, BaseConfig.create(configClass, parentDir));
+    }
+
+    /**
+     * Gets the current instance. Callers that read several values should
+     * keep the returned instance instead of calling this for each value,
+     * so all of them come from the same load.
+     *
+     * @return the current instance
+     */
+    public @NotNull C get() {
+        return this.config;
+    }
+
+    @Override
+    public @NotNull Path file() {
+        return this.config.checkInit();
+    }
+
+    /**
+     * Loads the file into a fresh instance and publishes it. If loading
+     * fails, the current instance stays published and untouched.
+     */
+    @Override
+    public synchronized void reload() {
+        this.config = BaseConfig.load(this.configClass, this.parentDir);
+    }
+
+    @Override
+    public synchronized boolean reloadIfChanged() {
+        if (this.config.rootNode().isFileUnchanged()) {
+            return false;
+        }
+        this.reload();
+        return true;
+    }
+
+    /**
+     * Saves the current instance.
+     */
+    @Override
+    public void save() {
+        this.config.save();
+    }
+}
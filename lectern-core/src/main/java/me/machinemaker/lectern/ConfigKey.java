@@ -0,0 +1,193 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodType;
+
+/**
+ * A precompiled path to a value node. The node is looked up on first
+ * use and reused until nodes are added to or removed from the tree. Reading a value through a key doesn't
+ * allocate or hash the path.
+ *
+ * <pre>{@code
+ * static final ConfigKey<Integer> PER_CHUNK = ConfigKey.of("limits.entities.per-chunk", Integer.class);
+ *
+ * int perChunk = PER_CHUNK.getInt(config.rootNode());
+ * }</pre>
+ *
+ * @param <T> the value type
+ */
+public final class ConfigKey<T> {
+
+    private final String path;
+    private final Class<T> type;
+    private volatile Binding<T> binding;
+
+    private ConfigKey(@NotNull String path, @NotNull Class<T> type) {
+        this.path = path;
+        this.type = type;
+    }
+
+    /**
+     * Creates a key for a `.`-separated path.
+     *
+     * @param path the path to the value node
+     * @param type the value type, boxed for primitive nodes
+     * @param <T> the value type
+     * @return the new key
+     * @throws IllegalArgumentException if the path has an empty key
+     */
+    public static <T> @NotNull ConfigKey<T> of(@NotNull String path, @NotNull Class<T> type) {
+        for (String key : path.split("\\.", -1)) {
+            if (key.isEmpty()) {
+                throw new IllegalArgumentException(path + " is not a valid path");
+            }
+        }
+        return new ConfigKey<>(path, type);
+    }
+
+    public @NotNull String path() {
+        return this.path;
+    }
+
+    public @NotNull Class<T> type() {
+        return this.type;
+    }
+
+    /**
+     * Gets the value node for this key.
+     *
+     * @param root the configuration to get the node from
+     * @return the value node
+     * @throws IllegalStateException if there is no value node of this key's type at the path
+     */
+    public @NotNull ValueNode<T> node(@NotNull ConfigurationNode root) {
+        final Binding<T> binding = this.binding;
+        if (binding != null && binding.root == root && binding.structure == root.structure()) {
+            return binding.node;
+        }
+        return this.resolve(root);
+    }
+
+    /**
+     * Gets the value for this key.
+     *
+     * @param root the configuration to get the value from
+     * @return the value
+     * @throws IllegalStateException if there is no value node of this key's type at the path
+     */
+    public @Nullable T get(@NotNull ConfigurationNode root) {
+        return this.node(root).value();
+    }
+
+    /**
+     * Sets the value for this key.
+     *
+     * @param root the configuration to set the value in
+     * @param value the new value
+     * @throws IllegalStateException if there is no value node of this key's type at the path
+     * @throws IllegalArgumentException if the value fails validation
+     */
+    public void set(@NotNull ConfigurationNode root, @Nullable T value) {
+        this.node(root).value(value);
+    }
+
+    /**
+     * Gets the value for this key without boxing it.
+     *
+     * @param root the configuration to get the value from
+     * @return the value
+     * @throws IllegalStateException if there is no {@link IntValueNode} at the path
+     */
+    public int getInt(@NotNull ConfigurationNode root) {
+        if (this.node(root) instanceof IntValueNode intNode) {
+            return intNode.intValue();
+        }
+        throw this.notA(int.class);
+    }
+
+    /**
+     * Gets the value for this key without boxing it.
+     *
+     * @param root the configuration to get the value from
+     * @return the value
+     * @throws IllegalStateException if there is no {@link LongValueNode} at the path
+     */
+    public long getLong(@NotNull ConfigurationNode root) {
+        if (this.node(root) instanceof LongValueNode longNode) {
+            return longNode.longValue();
+        }
+        throw this.notA(long.class);
+    }
+
+    /**
+     * Gets the value for this key without boxing it.
+     *
+     * @param root the configuration to get the value from
+     * @return the value
+     * @throws IllegalStateException if there is no {@link DoubleValueNode} at the path
+     */
+    public double getDouble(@NotNull ConfigurationNode root) {
+        if (this.node(root) instanceof DoubleValueNode doubleNode) {
+            return doubleNode.doubleValue();
+        }
+        throw this.notA(double.class);
+    }
+
+    /**
+     * Gets the value for this key without boxing it.
+     *
+     * @param root the configuration to get the value from
+     * @return the value
+     * @throws IllegalStateException if there is no {@link BooleanValueNode} at the path
+     */
+    public boolean getBoolean(@NotNull ConfigurationNode root) {
+        if (this.node(root) instanceof BooleanValueNode booleanNode) {
+            return booleanNode.booleanValue();
+        }
+        throw this.notA(boolean.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NotNull ValueNode<T> resolve(@NotNull ConfigurationNode root) {
+        // read first, so a change while resolving makes the binding stale right away
+        final int structure = root.structure();
+        if (!(root.getNode(this.path) instanceof ValueNode<?> valueNode)) {
+            throw new IllegalStateException(this.path + " is not a value node in the configuration tree");
+        }
+        final Class<?> nodeType = MethodType.methodType(valueNode.type().getRawClass()).wrap().returnType();
+        if (!this.type.isAssignableFrom(nodeType)) {
+            throw new IllegalStateException(this.path + " holds " + nodeType.getName() + ", not " + this.type.getName());
+        }
+        final ValueNode<T> node = (ValueNode<T>) valueNode;
+        this.binding = new Binding<>(root, structure, node);
+        return node;
+    }
+
+    private @NotNull IllegalStateException notA(@NotNull Class<?> primitiveType) {
+        return new IllegalStateException(this.path + " does not hold an unboxed " + primitiveType.getName());
+    }
+
+    private record Binding<T>(@NotNull ConfigurationNode root, int structure, @NotNull ValueNode<T> node) {
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Watches the files of {@link Reloadable}s and reloads them when they
+ * are changed on disk. All files are served by a single {@link WatchService}
+ * thread. Bursts of events for a file are debounced into one reload, and
+ * changes made by a config's own {@link ConfigurationNode#save()} are ignored.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+
+    private final WatchService watchService;
+    private final Executor executor;
+    private final long debounceNanos;
+    private final BiConsumer<@NotNull Reloadable, @NotNull RuntimeException> errorHandler;
+    private final Map<Path, Reloadable> files = new ConcurrentHashMap<>();
+    private final Map<Path, Directory> directories = new HashMap<>();
+    private final Map<Path, Long> pending = new HashMap<>();
+    private final Set<Path> running = ConcurrentHashMap.newKeySet();
+
+    private ConfigWatcher(@NotNull WatchService watchService, @NotNull Executor executor, @NotNull Duration debounce, @NotNull BiConsumer<@NotNull Reloadable, @NotNull RuntimeException> errorHandler) {
+        this.watchService = watchService;
+        this.executor = executor;
+        this.debounceNanos = debounce.toNanos();
+        this.errorHandler = errorHandler;
+        final Thread thread = new Thread(this::run, "lectern-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    private static @NotNull Path normalize(@NotNull Reloadable reloadable) {
+        return reloadable.checkInit().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Starts watching the file of a reloadable.
+     *
+     * @param reloadable the reloadable to reload when its file changes
+     * @throws IllegalArgumentException if the file is already watched
+     * @throws IllegalStateException if the directory of the file could not be watched
+     */
+    public void watch(@NotNull Reloadable reloadable) {
+        final Path file = normalize(reloadable);
+        final Path dir = file.getParent();
+        synchronized (this.directories) {
+            if (this.files.putIfAbsent(file, reloadable) != null) {
+                throw new IllegalArgumentException(file + " is already being watched");
+            }
+            Directory directory = this.directories.get(dir);
+            if (directory == null) {
+                try {
+                    Files.createDirectories(dir);
+                    directory = new Directory(dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+                } catch (IOException e) {
+                    this.files.remove(file);
+                    throw new IllegalStateException("Could not watch " + dir, e);
+                }
+                this.directories.put(dir, directory);
+            }
+            directory.count++;
+        }
+    }
+
+    /**
+     * Stops watching the file of a reloadable.
+     *
+     * @param reloadable the reloadable
+     * @return true if it was being watched
+     */
+    public boolean unwatch(@NotNull Reloadable reloadable) {
+        final Path file = normalize(reloadable);
+        synchronized (this.directories) {
+            if (!this.files.remove(file, reloadable)) {
+                return false;
+            }
+            final Directory directory = this.directories.get(file.getParent());
+            if (--directory.count == 0) {
+                directory.key.cancel();
+                this.directories.remove(file.getParent());
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Stops the watcher thread. Reloads that were
+     * already submitted to the executor still run.
+     *
+     * @throws IOException if the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                final WatchKey key = this.nextKey();
+                if (key != null) {
+                    final Path dir = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            this.files.keySet().stream().filter(file -> file.getParent().equals(dir)).forEach(this::schedule);
+                        } else {
+                            final Path file = dir.resolve((Path) event.context());
+                            if (this.files.containsKey(file)) {
+                                this.schedule(file);
+                            }
+                        }
+                    }
+                    key.reset();
+                }
+                this.submitDue();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException ignored) {
+            // watcher closed
+        }
+    }
+
+    private @Nullable WatchKey nextKey() throws InterruptedException {
+        if (this.pending.isEmpty()) {
+            return this.watchService.take();
+        }
+        long next = Long.MAX_VALUE;
+        for (long deadline : this.pending.values()) {
+            next = Math.min(next, deadline);
+        }
+        final long timeout = next - System.nanoTime();
+        return timeout > 0 ? this.watchService.poll(timeout, TimeUnit.NANOSECONDS) : this.watchService.poll();
+    }
+
+    private void schedule(@NotNull Path file) {
+        this.pending.put(file, System.nanoTime() + this.debounceNanos);
+    }
+
+    private void submitDue() {
+        final long now = System.nanoTime();
+        final Iterator<Map.Entry<Path, Long>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Path, Long> entry = iterator.next();
+            if (entry.getValue() - now > 0) {
+                continue;
+            }
+            final Path file = entry.getKey();
+            final Reloadable reloadable = this.files.get(file);
+            if (reloadable == null) {
+                iterator.remove();
+            } else if (!this.running.add(file)) {
+                // a reload of this file is still running, try again once it has had time to finish
+                entry.setValue(now + this.debounceNanos);
+            } else {
+                iterator.remove();
+                try {
+                    this.executor.execute(() -> this.reload(file, reloadable));
+                } catch (RuntimeException e) {
+                    this.running.remove(file);
+                    this.errorHandler.accept(reloadable, e);
+                }
+            }
+        }
+    }
+
+    private void reload(@NotNull Path file, @NotNull Reloadable reloadable) {
+        try {
+            reloadable.reloadIfChanged();
+        } catch (RuntimeException e) {
+            this.errorHandler.accept(reloadable, e);
+        } finally {
+            this.running.remove(file);
+        }
+    }
+
+    private static final class Directory {
+
+        private final WatchKey key;
+        private int count;
+
+        private Directory(@NotNull WatchKey key) {
+            this.key = key;
+        }
+    }
+
+    public static final class Builder {
+
+        private Executor executor = Runnable::run;
+        private Duration debounce = Duration.ofMillis(100);
+        private BiConsumer<@NotNull Reloadable, @NotNull RuntimeException> errorHandler = (reloadable, e) -> Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the executor reloads are run on. Defaults to running
+         * them on the watcher thread.
+         *
+         * @param executor the executor
+         * @return the builder for chaining
+         */
+        public @NotNull Builder withExecutor(@NotNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets how long a file has to stay unchanged after an
+         * event before it is reloaded. Defaults to 100ms.
+         *
+         * @param debounce the debounce delay
+         * @return the builder for chaining
+         */
+        public @NotNull Builder withDebounce(@NotNull Duration debounce) {
+            this.debounce = debounce;
+            return this;
+        }
+
+        /**
+         * Sets the handler for exceptions thrown by reloads. Defaults
+         * to the uncaught exception handler of the reloading thread.
+         *
+         * @param errorHandler the error handler
+         * @return the builder for chaining
+         */
+        public @NotNull Builder withErrorHandler(@NotNull BiConsumer<@NotNull Reloadable, @NotNull RuntimeException> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public @NotNull ConfigWatcher build() {
+            try {
+                return new ConfigWatcher(FileSystems.getDefault().newWatchService(), this.executor, this.debounce, this.errorHandler);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not create a watch service", e);
+            }
+        }
+    }
+}
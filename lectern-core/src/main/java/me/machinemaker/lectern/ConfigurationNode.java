@@ -19,16 +19,36 @@
  */
 package me.machinemaker.lectern;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import me.machinemaker.lectern.codecs.CodecRegistry;
 import me.machinemaker.lectern.contexts.InvalidKeyHandler;
 import me.machinemaker.lectern.contexts.LoadContext;
 import me.machinemaker.lectern.contexts.SerializeContext;
+import me.machinemaker.lectern.exceptions.ConfigReloadException;
 import me.machinemaker.lectern.exceptions.ConfigSaveException;
+import me.machinemaker.lectern.exceptions.ConfigValidationException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class ConfigurationNode extends SectionNode implements Reloadable {
 
@@ -36,13 +56,48 @@ public abstract class ConfigurationNode extends SectionNode implements Reloadabl
     private final ObjectMapper mapper;
     private final LoadContext loadContext;
     private final SerializeContext serializeContext;
+    private final SaveMode saveMode;
+    private final ForkJoinPool validationPool;
+    private final int parallelValidationThreshold;
+    private volatile ContentHash savedHash;
+    private volatile Fingerprint fingerprint;
+    private volatile int syncedChanges = -1;
+    private final AtomicInteger structure = new AtomicInteger();
+    private final Map<ValueSchema<?>, ValueSchema<?>> schemas;
+    private Map<String, Node> index;
 
     protected ConfigurationNode(Path file, @NotNull ObjectMapper mapper, @NotNull InvalidKeyHandler invalidKeyHandler, char commentChar, int indentSize) {
-        super("", null);
+        this(file, mapper, invalidKeyHandler, commentChar, indentSize, SaveMode.DIRECT);
+    }
+
+    protected ConfigurationNode(Path file, @NotNull ObjectMapper mapper, @NotNull InvalidKeyHandler invalidKeyHandler, char commentChar, int indentSize, @NotNull SaveMode saveMode) {
+        this(file, mapper, invalidKeyHandler, commentChar, indentSize, saveMode, null, Integer.MAX_VALUE, false, CodecRegistry.defaults());
+    }
+
+    /**
+     * Creates a configuration with the settings of a builder.
+     *
+     * @param builder the builder
+     * @param mapper the mapper for the file format
+     * @param commentChar the character starting a comment
+     * @param indentSize the number of spaces per indentation level
+     */
+    protected ConfigurationNode(@NotNull TypedBuilder<?, ?> builder, @NotNull ObjectMapper mapper, char commentChar, int indentSize) {
+        this(builder.file(), mapper, builder.invalidKeyHandler(), commentChar, indentSize, builder.saveMode(), builder.validationPool, builder.parallelValidationThreshold, builder.concurrentTree, builder.codecs);
+    }
+
+    private ConfigurationNode(Path file, @NotNull ObjectMapper mapper, @NotNull InvalidKeyHandler invalidKeyHandler, char commentChar, int indentSize, @NotNull SaveMode saveMode, @Nullable ForkJoinPool validationPool, int parallelValidationThreshold, boolean concurrentTree, @NotNull CodecRegistry codecs) {
+        super("", null, null, concurrentTree ? new CopyOnWriteLinkedMap<>() : new ArrayMap<>());
+        this.schemas = concurrentTree ? new ConcurrentHashMap<>() : new HashMap<>();
+        // concurrent trees index eagerly, so the index can't miss nodes added while it is built
+        this.index = concurrentTree ? new ConcurrentHashMap<>() : null;
         this.file = file;
         this.mapper = mapper;
-        this.loadContext = new LoadContext(this, invalidKeyHandler, mapper);
-        this.serializeContext = new SerializeContext(this, mapper, commentChar, indentSize);
+        this.saveMode = saveMode;
+        this.validationPool = validationPool;
+        this.parallelValidationThreshold = parallelValidationThreshold;
+        this.loadContext = new LoadContext(this, invalidKeyHandler, mapper, codecs);
+        this.serializeContext = new SerializeContext(this, mapper, codecs, commentChar, indentSize);
     }
 
     @Override
@@ -50,33 +105,282 @@ public abstract class ConfigurationNode extends SectionNode implements Reloadabl
         return this.file;
     }
 
+    public @NotNull SaveMode saveMode() {
+        return this.saveMode;
+    }
+
+    /**
+     * Saves the configuration. Nothing is written if the file
+     * already has the exact content that would be written.
+     */
     @Override
     public void save() {
         try {
             Files.createDirectories(this.file().getParent());
-            if (Files.notExists(this.file())) {
-                Files.createFile(this.file());
+            ContentHash hash = this.savedHash;
+            if (hash == null || this.isDirty() || !this.isSaved(hash)) {
+                // rendered once, straight into the file being written
+                hash = this.saveMode == SaveMode.DIRECT ? this.saveDirectly() : this.saveAtomically();
             }
-            Files.writeString(this.file(), this.asString(this.serializeContext, 0));
+            this.savedHash = hash;
+            this.markClean();
+            this.sync(Fingerprint.of(Files.readAttributes(this.file(), BasicFileAttributes.class), hash));
         } catch (IOException e) {
             throw new ConfigSaveException(this, e);
         }
     }
 
+    /**
+     * Checks if the file has the content with the specified hash.
+     *
+     * @param hash the hash of the content
+     * @return true if the file has that content
+     * @throws IOException if the file could not be read
+     */
+    private boolean isSaved(@NotNull ContentHash hash) throws IOException {
+        final Fingerprint fingerprint = this.fingerprint;
+        return fingerprint != null && hash.equals(fingerprint.content()) ? this.isFileUnchanged() : hash.matches(this.file());
+    }
+
+    /**
+     * Checks if the file still has the content it had when
+     * it was last loaded or saved by this configuration.
+     *
+     * @return true if the file is unchanged
+     */
+    boolean isFileUnchanged() {
+        final Fingerprint fingerprint = this.fingerprint;
+        if (fingerprint == null) {
+            return false;
+        }
+        try {
+            final Fingerprint checked = fingerprint.check(this.file());
+            if (checked != fingerprint) {
+                this.fingerprint = checked;
+            }
+            return checked != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets a node from a `.`-separated path with a single lookup
+     * in the index of every node in this configuration. The index
+     * is built on the first lookup of a nested path.
+     *
+     * @param path the path to search for the node on
+     * @return the node, or null if none found
+     */
+    @Override
+    public @Nullable Node getNode(@NotNull String path) {
+        if (path.indexOf('.') < 0) {
+            return this.children().get(path);
+        }
+        Map<String, Node> index = this.index;
+        if (index == null) {
+            index = new HashMap<>();
+            this.index = index;
+            for (Node child : this.children().values()) {
+                this.index(child);
+            }
+        }
+        return index.get(path);
+    }
+
+    /**
+     * Adds a node and every node below it to the path index.
+     *
+     * @param node the added node
+     */
+    final void index(@NotNull Node node) {
+        if (this.index == null) {
+            return;
+        }
+        this.index.put(node.path(), node);
+        if (node instanceof SectionNode section) {
+            for (Node child : section.children().values()) {
+                this.index(child);
+            }
+        }
+    }
+
+    /**
+     * Removes a node and every node below it from the path index.
+     *
+     * @param node the removed node
+     */
+    final void unindex(@NotNull Node node) {
+        if (this.index == null) {
+            return;
+        }
+        this.index.remove(node.path(), node);
+        if (node instanceof SectionNode section) {
+            for (Node child : section.children().values()) {
+                this.unindex(child);
+            }
+        }
+    }
+
+    /**
+     * Gets the shared instance of a value node schema.
+     *
+     * @param schema the schema
+     * @param <T> the value type
+     * @return the equal schema already in use, or the schema itself
+     */
+    @SuppressWarnings("unchecked")
+    final <T> @NotNull ValueSchema<T> schema(@NotNull ValueSchema<T> schema) {
+        final ValueSchema<?> existing = this.schemas.putIfAbsent(schema, schema);
+        return existing != null ? (ValueSchema<T>) existing : schema;
+    }
+
+    /**
+     * Resolves the codecs, readers and writers of every value type in
+     * this configuration, so the first load and save don't have to.
+     * Configuration classes are warmed up when they are initialized.
+     */
+    public final void warmUp() {
+        for (ValueSchema<?> schema : this.schemas.keySet()) {
+            if (schema.codec(this.loadContext.codecs()) == null) {
+                schema.reader(this.loadContext);
+                schema.writer(this.serializeContext);
+            }
+        }
+    }
+
+    /**
+     * Gets a value through a precompiled key.
+     *
+     * @param key the key
+     * @param <T> the value type
+     * @return the value
+     * @throws IllegalStateException if there is no value node of the key's type at its path
+     */
+    public <T> @Nullable T get(@NotNull ConfigKey<T> key) {
+        return key.get(this);
+    }
+
+    /**
+     * Gets a counter that changes whenever nodes are added to or removed from this tree.
+     *
+     * @return the structure counter
+     */
+    final int structure() {
+        return this.structure.get();
+    }
+
+    final void structureChanged() {
+        this.structure.incrementAndGet();
+    }
+
+    private void sync(@NotNull Fingerprint fingerprint) {
+        this.fingerprint = fingerprint;
+        this.syncedChanges = this.changes();
+    }
+
+    private void render(@NotNull OutputStream out) throws IOException {
+        try (IndentingWriter writer = new IndentingWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+            this.write(writer, this.serializeContext, 0);
+        }
+    }
+
+    private @NotNull ContentHash saveDirectly() throws IOException {
+        final ContentHash.Sink sink = new ContentHash.Sink(new OverwritingOutputStream(this.file()));
+        this.render(sink);
+        return sink.hash();
+    }
+
+    private @NotNull ContentHash saveAtomically() throws IOException {
+        // unique per save, so concurrent saves never write to or delete each other's temp file
+        final Path temp = this.file().resolveSibling(this.file().getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        try {
+            final ContentHash.Sink sink = new ContentHash.Sink(Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+            this.render(sink);
+            final ContentHash hash = sink.hash();
+            if (this.isSaved(hash)) {
+                // the temp file is dropped, the file keeps its modification time
+                return hash;
+            }
+            if (this.saveMode == SaveMode.ATOMIC_SYNC) {
+                // fsync applies to the file, not the descriptor, so the written data is forced by a fresh channel
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+            }
+            Files.move(temp, this.file(), StandardCopyOption.ATOMIC_MOVE);
+            if (this.saveMode == SaveMode.ATOMIC_SYNC) {
+                forceDirectory(this.file().toAbsolutePath().getParent());
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Forces a directory to the storage device, so a rename in it survives
+     * a crash. Platforms which can't open directories, like Windows, are
+     * skipped.
+     */
+    private static void forceDirectory(@NotNull Path directory) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reloads the configuration. Nothing is read if neither
+     * the file nor the nodes changed since the last load or save.
+     *
+     * @throws ConfigValidationException if any loaded values are invalid, in which case no values are changed
+     */
     @Override
     public void reload() {
+        this.reloadIfChanged();
+    }
+
+    @Override
+    public boolean reloadIfChanged() {
+        if (this.syncedChanges == this.changes() && this.isFileUnchanged()) {
+            return false;
+        }
         try {
-            this.load(this.mapper.readTree(Files.newInputStream(this.file)), this.loadContext);
+            final BasicFileAttributes attributes = Files.readAttributes(this.file, BasicFileAttributes.class);
+            try (ContentHash.Source input = new ContentHash.Source(Files.newInputStream(this.file)); JsonParser parser = this.mapper.createParser(input)) {
+                final StagedValues staged = new StagedValues();
+                if (parser.nextToken() == JsonToken.START_OBJECT) {
+                    this.load(parser, this.loadContext, staged);
+                }
+                final Map<String, String> errors = staged.validate(this.validationPool, this.parallelValidationThreshold);
+                if (!errors.isEmpty()) {
+                    throw new ConfigValidationException(this, errors);
+                }
+                staged.commit();
+                this.sync(Fingerprint.of(attributes, input.hash()));
+            }
         } catch (IOException ioException) {
-            throw new ConfigSaveException(this, ioException);
+            throw new ConfigReloadException(this, ioException);
         }
+        return true;
     }
 
     protected abstract static class TypedBuilder<C extends ConfigurationNode, B extends TypedBuilder<C, B>> {
 
         private final Path file;
-        private ObjectMapper mapper = new ObjectMapper();
+        private ObjectMapper mapper = ObjectMappers.json();
         private InvalidKeyHandler invalidKeyHandler = InvalidKeyHandler.Preset.EXCEPTION;
+        private SaveMode saveMode = SaveMode.DIRECT;
+        private ForkJoinPool validationPool;
+        private int parallelValidationThreshold = Integer.MAX_VALUE;
+        private boolean concurrentTree;
+        private CodecRegistry codecs = CodecRegistry.defaults();
 
         protected TypedBuilder(@NotNull Path file) {
             this.file = file;
@@ -99,6 +403,17 @@ public abstract class ConfigurationNode extends SectionNode implements Reloadabl
             return this.invalidKeyHandler;
         }
 
+        protected final @NotNull SaveMode saveMode() {
+            return this.saveMode;
+        }
+
+        /**
+         * Sets the mapper for the file format. Defaults to a JSON mapper
+         * shared by all configurations, which must not be reconfigured.
+         *
+         * @param mapper the mapper
+         * @return the builder for chaining
+         */
         public @NotNull B withMapper(@NotNull ObjectMapper mapper) {
             this.mapper = mapper;
             return self();
@@ -109,6 +424,68 @@ public abstract class ConfigurationNode extends SectionNode implements Reloadabl
             return self();
         }
 
+        /**
+         * Sets how the file is written on save. Defaults to {@link SaveMode#DIRECT}.
+         *
+         * @param saveMode the save mode
+         * @return the builder for chaining
+         */
+        public @NotNull B withSaveMode(@NotNull SaveMode saveMode) {
+            this.saveMode = saveMode;
+            return self();
+        }
+
+        /**
+         * Validates reloaded values in parallel on the common pool once a file
+         * has at least {@code threshold} values. Validators must be thread-safe.
+         *
+         * @param threshold the number of values from which validation is parallel
+         * @return the builder for chaining
+         */
+        public @NotNull B withParallelValidation(int threshold) {
+            return this.withParallelValidation(ForkJoinPool.commonPool(), threshold);
+        }
+
+        /**
+         * Validates reloaded values in parallel on a pool once a file has
+         * at least {@code threshold} values. Validators must be thread-safe.
+         *
+         * @param pool the pool to validate on
+         * @param threshold the number of values from which validation is parallel
+         * @return the builder for chaining
+         */
+        public @NotNull B withParallelValidation(@NotNull ForkJoinPool pool, int threshold) {
+            this.validationPool = pool;
+            this.parallelValidationThreshold = threshold;
+            return self();
+        }
+
+        /**
+         * Makes the node tree safe to read and modify from multiple threads.
+         * Reads never lock, and structural changes lock only the section
+         * they change. Children keep their insertion order. Adding a child
+         * takes amortized constant time, but replacing or removing one
+         * copies the children of its section.
+         *
+         * @return the builder for chaining
+         */
+        public @NotNull B withConcurrentTree() {
+            this.concurrentTree = true;
+            return self();
+        }
+
+        /**
+         * Sets the codecs values are read and written with. Defaults
+         * to {@link CodecRegistry#defaults()}.
+         *
+         * @param codecs the codec registry
+         * @return the builder for chaining
+         */
+        public @NotNull B withCodecs(@NotNull CodecRegistry codecs) {
+            this.codecs = codecs;
+            return self();
+        }
+
         public abstract @NotNull C build();
 
     }
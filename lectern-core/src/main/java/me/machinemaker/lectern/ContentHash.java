@@ -0,0 +1,191 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * The size and CRC32C checksum of the contents of a config file. This
+ * only detects changes, so a cheap checksum is enough; it is not meant
+ * to hold up against files crafted to collide.
+ */
+final class ContentHash {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final long size;
+    private final long checksum;
+
+    private ContentHash(long size, long checksum) {
+        this.size = size;
+        this.checksum = checksum;
+    }
+
+    long size() {
+        return this.size;
+    }
+
+    /**
+     * Checks if a file currently has exactly this content. The file is
+     * only read if its size matches.
+     *
+     * @param file the file
+     * @return true if the file exists and has this content
+     * @throws IOException if the file could not be read
+     */
+    boolean matches(@NotNull Path file) throws IOException {
+        try {
+            if (Files.size(file) != this.size) {
+                return false;
+            }
+            final CRC32C checksum = new CRC32C();
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream input = Files.newInputStream(file)) {
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    checksum.update(buffer, 0, read);
+                }
+            }
+            return checksum.getValue() == this.checksum;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * An input stream that keeps track of the count
+     * and checksum of the bytes read through it.
+     */
+    static final class Source extends InputStream {
+
+        private final InputStream in;
+        private final CRC32C checksum = new CRC32C();
+        private long size;
+
+        Source(@NotNull InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = this.in.read();
+            if (b != -1) {
+                this.checksum.update((byte) b);
+                this.size++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte @NotNull [] b, int off, int len) throws IOException {
+            final int read = this.in.read(b, off, len);
+            if (read > 0) {
+                this.checksum.update(b, off, read);
+                this.size += read;
+            }
+            return read;
+        }
+
+        /**
+         * Reads the rest of the stream and gets the hash of everything read.
+         *
+         * @return the hash
+         * @throws IOException if the stream could not be read
+         */
+        @NotNull ContentHash hash() throws IOException {
+            this.transferTo(OutputStream.nullOutputStream());
+            return new ContentHash(this.size, this.checksum.getValue());
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.in.close();
+        }
+    }
+
+    /**
+     * An output stream that keeps track of the count
+     * and checksum of the bytes written through it.
+     */
+    static final class Sink extends OutputStream {
+
+        private final OutputStream out;
+        private final CRC32C checksum = new CRC32C();
+        private long size;
+
+        Sink(@NotNull OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.checksum.update((byte) b);
+            this.size++;
+        }
+
+        @Override
+        public void write(byte @NotNull [] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+            this.checksum.update(b, off, len);
+            this.size += len;
+        }
+
+        /**
+         * Gets the hash of everything written so far.
+         *
+         * @return the hash
+         */
+        @NotNull ContentHash hash() {
+            return new ContentHash(this.size, this.checksum.getValue());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.out.close();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ContentHash that && this.size == that.size && this.checksum == that.checksum;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(this.size) + Long.hashCode(this.checksum);
+    }
+}
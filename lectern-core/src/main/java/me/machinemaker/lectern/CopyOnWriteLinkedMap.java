@@ -0,0 +1,234 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An insertion-ordered map for concurrent trees. Lookups go to a
+ * {@link ConcurrentHashMap} and iteration goes to an immutable snapshot
+ * of the entries, neither of which locks. Writes lock the map. Appending
+ * a new key takes amortized constant time, because snapshots share one
+ * growing array and each only reads up to its own size. Replacing or
+ * removing a key copies the entries. Iteration sees the contents at the
+ * time it started. Null keys and values are not supported.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class CopyOnWriteLinkedMap<K, V> extends AbstractMap<K, V> {
+
+    private static final Entry<?, ?>[] EMPTY = {};
+
+    private final Map<K, V> index = new ConcurrentHashMap<>();
+    private volatile Snapshot<K, V> snapshot = new Snapshot<>(EMPTY, 0);
+
+    @Override
+    public int size() {
+        return this.snapshot.size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.index.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        return this.index.get(key);
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        final Snapshot<K, V> current = this.snapshot;
+        final Entry<K, V> entry = new SimpleImmutableEntry<>(key, value);
+        final V previous = this.index.get(key);
+        if (previous != null) {
+            final Entry<?, ?>[] entries = Arrays.copyOf(current.entries, current.size);
+            entries[current.indexOf(key)] = entry;
+            this.snapshot = new Snapshot<>(entries, current.size);
+        } else {
+            Entry<?, ?>[] entries = current.entries;
+            if (current.size == entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(4, current.size * 2));
+            }
+            // slots past a snapshot's size are never read through it, so older snapshots are unaffected
+            entries[current.size] = entry;
+            this.snapshot = new Snapshot<>(entries, current.size + 1);
+        }
+        this.index.put(key, value);
+        return previous;
+    }
+
+    /**
+     * Adds a value if there is no value for the key yet.
+     *
+     * @param key the key
+     * @param value the value to add
+     * @return the current value, or null if the value was added
+     */
+    @Override
+    public synchronized @Nullable V putIfAbsent(K key, V value) {
+        final V current = this.index.get(key);
+        return current != null ? current : this.put(key, value);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        final V previous = this.index.remove(key);
+        if (previous == null) {
+            return null;
+        }
+        final Snapshot<K, V> current = this.snapshot;
+        final int removed = current.indexOf(key);
+        final Entry<?, ?>[] entries = new Entry<?, ?>[current.size - 1];
+        System.arraycopy(current.entries, 0, entries, 0, removed);
+        System.arraycopy(current.entries, removed + 1, entries, removed, entries.length - removed);
+        this.snapshot = new Snapshot<>(entries, entries.length);
+        return previous;
+    }
+
+    @Override
+    public synchronized void clear() {
+        this.index.clear();
+        this.snapshot = new Snapshot<>(EMPTY, 0);
+    }
+
+    @Override
+    public @NotNull Set<K> keySet() {
+        final Snapshot<K, V> snapshot = this.snapshot;
+        return new AbstractSet<>() {
+            @Override
+            public @NotNull Iterator<K> iterator() {
+                final Iterator<Entry<K, V>> entries = snapshot.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public K next() {
+                        return entries.next().getKey();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return snapshot.size;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull Collection<V> values() {
+        final Snapshot<K, V> snapshot = this.snapshot;
+        return new AbstractCollection<>() {
+            @Override
+            public @NotNull Iterator<V> iterator() {
+                final Iterator<Entry<K, V>> entries = snapshot.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public V next() {
+                        return entries.next().getValue();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return snapshot.size;
+            }
+        };
+    }
+
+    @Override
+    public @NotNull Set<Entry<K, V>> entrySet() {
+        return this.snapshot;
+    }
+
+    /**
+     * The first {@code size} entries of an array, which are never changed
+     * once published.
+     */
+    private static final class Snapshot<K, V> extends AbstractSet<Entry<K, V>> {
+
+        private final Entry<?, ?>[] entries;
+        private final int size;
+
+        private Snapshot(@NotNull Entry<?, ?>[] entries, int size) {
+            this.entries = entries;
+            this.size = size;
+        }
+
+        private int indexOf(@NotNull Object key) {
+            for (int i = 0; i < this.size; i++) {
+                if (key.equals(this.entries[i].getKey())) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException(key + " is not in the snapshot");
+        }
+
+        @Override
+        public @NotNull Iterator<Entry<K, V>> iterator() {
+            return new Iterator<>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return this.index < Snapshot.this.size;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<K, V> next() {
+                    if (this.index >= Snapshot.this.size) {
+                        throw new NoSuchElementException();
+                    }
+                    return (Entry<K, V>) Snapshot.this.entries[this.index++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import me.machinemaker.lectern.collection.Coercions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Copies values between the fields of a config or section class
+ * and the nodes of a {@link SectionNode}.
+ *
+ * @param <C> the config or section type
+ * @see ConfigBinder
+ */
+public abstract class FieldBinder<C> {
+
+    private static final Function<Object, Object> TO_BYTE = Coercions.forType(byte.class);
+    private static final Function<Object, Object> TO_SHORT = Coercions.forType(short.class);
+    private static final Function<Object, Object> TO_INT = Coercions.forType(int.class);
+    private static final Function<Object, Object> TO_LONG = Coercions.forType(long.class);
+    private static final Function<Object, Object> TO_FLOAT = Coercions.forType(float.class);
+    private static final Function<Object, Object> TO_DOUBLE = Coercions.forType(double.class);
+
+    private final Class<C> type;
+
+    protected FieldBinder(@NotNull Class<C> type) {
+        this.type = type;
+    }
+
+    public final @NotNull Class<C> type() {
+        return this.type;
+    }
+
+    /**
+     * Sets each field of the instance to the value of its node.
+     *
+     * @param instance the instance to set the fields of
+     * @param sectionNode the section node to read the values from
+     */
+    public abstract void loadFields(@NotNull C instance, @NotNull SectionNode sectionNode);
+
+    /**
+     * Sets the value of each node to the value of its field.
+     *
+     * @param instance the instance to read the fields of
+     * @param sectionNode the section node to set the values on
+     */
+    public abstract void loadConfigTree(@NotNull C instance, @NotNull SectionNode sectionNode);
+
+    protected final void setValue(@NotNull SectionNode sectionNode, @NotNull String key, @Nullable Object value) {
+        valueNode(sectionNode, key).setValue(value);
+    }
+
+    /**
+     * Gets the value of a {@code int} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @return the value
+     */
+    protected final int getInt(@NotNull SectionNode sectionNode, @NotNull String key) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        return valueNode instanceof IntValueNode intNode ? intNode.intValue() : this.toInt(valueNode.value(), key);
+    }
+
+    /**
+     * Sets the value of a {@code int} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @param value the value to set
+     */
+    protected final void setInt(@NotNull SectionNode sectionNode, @NotNull String key, int value) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        if (valueNode instanceof IntValueNode intNode) {
+            intNode.intValue(value);
+        } else {
+            valueNode.setValue(value);
+        }
+    }
+
+    /**
+     * Gets the value of a {@code long} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @return the value
+     */
+    protected final long getLong(@NotNull SectionNode sectionNode, @NotNull String key) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        return valueNode instanceof LongValueNode longNode ? longNode.longValue() : this.toLong(valueNode.value(), key);
+    }
+
+    /**
+     * Sets the value of a {@code long} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @param value the value to set
+     */
+    protected final void setLong(@NotNull SectionNode sectionNode, @NotNull String key, long value) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        if (valueNode instanceof LongValueNode longNode) {
+            longNode.longValue(value);
+        } else {
+            valueNode.setValue(value);
+        }
+    }
+
+    /**
+     * Gets the value of a {@code double} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @return the value
+     */
+    protected final double getDouble(@NotNull SectionNode sectionNode, @NotNull String key) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        return valueNode instanceof DoubleValueNode doubleNode ? doubleNode.doubleValue() : this.toDouble(valueNode.value(), key);
+    }
+
+    /**
+     * Sets the value of a {@code double} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @param value the value to set
+     */
+    protected final void setDouble(@NotNull SectionNode sectionNode, @NotNull String key, double value) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        if (valueNode instanceof DoubleValueNode doubleNode) {
+            doubleNode.doubleValue(value);
+        } else {
+            valueNode.setValue(value);
+        }
+    }
+
+    /**
+     * Gets the value of a {@code boolean} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @return the value
+     */
+    protected final boolean getBoolean(@NotNull SectionNode sectionNode, @NotNull String key) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        return valueNode instanceof BooleanValueNode booleanNode ? booleanNode.booleanValue() : this.toBoolean(valueNode.value(), key);
+    }
+
+    /**
+     * Sets the value of a {@code boolean} node without boxing it.
+     *
+     * @param sectionNode the section node containing the node
+     * @param key the node key
+     * @param value the value to set
+     */
+    protected final void setBoolean(@NotNull SectionNode sectionNode, @NotNull String key, boolean value) {
+        final ValueNode<?> valueNode = valueNode(sectionNode, key);
+        if (valueNode instanceof BooleanValueNode booleanNode) {
+            booleanNode.booleanValue(value);
+        } else {
+            valueNode.setValue(value);
+        }
+    }
+
+    protected static @NotNull SectionNode sectionNode(@NotNull SectionNode sectionNode, @NotNull String key) {
+        if (getNode(sectionNode, key) instanceof SectionNode subSectionNode) {
+            return subSectionNode;
+        }
+        throw new IllegalStateException(sectionNode.getNode(key) + " is not a section node");
+    }
+
+    protected static @NotNull ValueNode<?> valueNode(@NotNull SectionNode sectionNode, @NotNull String key) {
+        if (getNode(sectionNode, key) instanceof ValueNode<?> valueNode) {
+            return valueNode;
+        }
+        throw new IllegalStateException(sectionNode.getNode(key) + " is not a value node");
+    }
+
+    private static @NotNull Node getNode(@NotNull SectionNode sectionNode, @NotNull String key) {
+        final Node node = sectionNode.getNode(key);
+        if (node == null) {
+            throw new IllegalStateException(key + " is null in the configuration tree");
+        }
+        return node;
+    }
+
+    /**
+     * Creates the coercion of a reference field. Binders create
+     * it once per field and pass it to {@link #cast(Object, Function, String)}.
+     *
+     * @param rawType the raw field type
+     * @return the coercion
+     * @see Coercions#forType(Class)
+     */
+    protected static @NotNull Function<@Nullable Object, @Nullable Object> coercion(@NotNull Class<?> rawType) {
+        return Coercions.forType(rawType);
+    }
+
+    /**
+     * Converts a node value to the type of a reference field.
+     *
+     * @param value the node value
+     * @param coercion the coercion of the field
+     * @param key the node key
+     * @param <T> the field type
+     * @return the converted value
+     * @throws IllegalStateException if the value can't be set on the field
+     */
+    @SuppressWarnings("unchecked")
+    protected final <T> @Nullable T cast(@Nullable Object value, @NotNull Function<@Nullable Object, @Nullable Object> coercion, @NotNull String key) {
+        final Object coerced = coercion.apply(value);
+        if (coerced == Coercions.INVALID) {
+            throw this.unableToSet(key, value);
+        }
+        return (T) coerced;
+    }
+
+    protected final boolean toBoolean(@Nullable Object value, @NotNull String key) {
+        if (value instanceof Boolean booleanValue) {
+            return booleanValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final char toChar(@Nullable Object value, @NotNull String key) {
+        if (value instanceof Character charValue) {
+            return charValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final byte toByte(@Nullable Object value, @NotNull String key) {
+        if (TO_BYTE.apply(value) instanceof Byte byteValue) {
+            return byteValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final short toShort(@Nullable Object value, @NotNull String key) {
+        if (TO_SHORT.apply(value) instanceof Short shortValue) {
+            return shortValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final int toInt(@Nullable Object value, @NotNull String key) {
+        if (TO_INT.apply(value) instanceof Integer intValue) {
+            return intValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final long toLong(@Nullable Object value, @NotNull String key) {
+        if (TO_LONG.apply(value) instanceof Long longValue) {
+            return longValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final float toFloat(@Nullable Object value, @NotNull String key) {
+        if (TO_FLOAT.apply(value) instanceof Float floatValue) {
+            return floatValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    protected final double toDouble(@Nullable Object value, @NotNull String key) {
+        if (TO_DOUBLE.apply(value) instanceof Double doubleValue) {
+            return doubleValue;
+        }
+        throw this.unableToSet(key, value);
+    }
+
+    private @NotNull IllegalStateException unableToSet(@NotNull String key, @Nullable Object value) {
+        final String message = String.format("Unable to set value in %s for %s", this.type.getCanonicalName(), key);
+        return new IllegalStateException(value == null ? message : message + " to " + value);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The state of a config file when it was last loaded or saved. Checking
+ * it usually costs a single {@code stat}. The content is only hashed if the
+ * modification time changed without the size changing, or if the file was
+ * recorded so recently that a later write could share its modification time.
+ */
+final class Fingerprint {
+
+    // covers the coarsest common timestamp granularity (FAT)
+    private static final long RACY_MILLIS = TimeUnit.SECONDS.toMillis(2);
+
+    private final FileTime lastModified;
+    private final ContentHash content;
+    private final boolean racy;
+
+    private Fingerprint(@NotNull FileTime lastModified, @NotNull ContentHash content) {
+        this.lastModified = lastModified;
+        this.content = content;
+        this.racy = System.currentTimeMillis() - lastModified.toMillis() < RACY_MILLIS;
+    }
+
+    /**
+     * Records the state of a file.
+     *
+     * @param attributes the attributes of the file, read before its content
+     * @param content the hash of the content
+     * @return the fingerprint
+     */
+    static @NotNull Fingerprint of(@NotNull BasicFileAttributes attributes, @NotNull ContentHash content) {
+        return new Fingerprint(attributes.lastModifiedTime(), content);
+    }
+
+    /**
+     * Reads the attributes of a file.
+     *
+     * @param file the file
+     * @return the attributes, or null if the file does not exist
+     * @throws IOException if the attributes could not be read
+     */
+    static @Nullable BasicFileAttributes attributes(@NotNull Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @NotNull ContentHash content() {
+        return this.content;
+    }
+
+    /**
+     * Checks if a file still matches this fingerprint.
+     *
+     * @param file the file
+     * @return null if the file changed, otherwise this fingerprint or
+     * an up-to-date one if only the modification time changed
+     * @throws IOException if the file could not be read
+     */
+    @Nullable Fingerprint check(@NotNull Path file) throws IOException {
+        final BasicFileAttributes attributes = attributes(file);
+        if (attributes == null || attributes.size() != this.content.size()) {
+            return null;
+        }
+        if (!this.racy && attributes.lastModifiedTime().equals(this.lastModified)) {
+            return this;
+        }
+        return this.content.matches(file) ? of(attributes, this.content) : null;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer that prefixes every non-empty line written
+ * through it with the current indentation.
+ */
+final class IndentingWriter extends Writer {
+
+    private final Writer out;
+    private int indent;
+    private boolean lineStart = true;
+
+    IndentingWriter(@NotNull Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Sets the indentation for the lines started after this call.
+     *
+     * @param indent the number of spaces
+     */
+    void indent(int indent) {
+        this.indent = indent;
+    }
+
+    /**
+     * Ends the current line if anything has been written to it.
+     *
+     * @throws IOException if the underlying writer fails
+     */
+    void endLine() throws IOException {
+        if (!this.lineStart) {
+            this.write('\n');
+        }
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (c == '\n') {
+            this.lineStart = true;
+        } else if (this.lineStart) {
+            this.writeIndent();
+        }
+        this.out.write(c);
+    }
+
+    @Override
+    public void write(char @NotNull [] cbuf, int off, int len) throws IOException {
+        final int end = off + len;
+        int start = off;
+        for (int i = off; i < end; i++) {
+            if (cbuf[i] == '\n') {
+                this.out.write(cbuf, start, i + 1 - start);
+                start = i + 1;
+                this.lineStart = true;
+            } else if (this.lineStart) {
+                this.writeIndent();
+            }
+        }
+        this.out.write(cbuf, start, end - start);
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        final int end = off + len;
+        int start = off;
+        for (int i = off; i < end; i++) {
+            if (str.charAt(i) == '\n') {
+                this.out.write(str, start, i + 1 - start);
+                start = i + 1;
+                this.lineStart = true;
+            } else if (this.lineStart) {
+                this.writeIndent();
+            }
+        }
+        this.out.write(str, start, end - start);
+    }
+
+    private void writeIndent() throws IOException {
+        for (int i = 0; i < this.indent; i++) {
+            this.out.write(' ');
+        }
+        this.lineStart = false;
+    }
+
+    /**
+     * Does nothing. Generators flush when they finish a value,
+     * which would otherwise push every value through to the file,
+     * so the buffer is only written out on {@link #close()}.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
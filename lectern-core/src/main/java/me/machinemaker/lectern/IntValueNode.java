@@ -0,0 +1,129 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+/**
+ * A {@link ValueNode} storing an unboxed {@code int}.
+ */
+public final class IntValueNode extends UnboxedValueNode<Integer> {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(IntValueNode.class, "intValue", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile int intValue;
+
+    IntValueNode(@NotNull String key, @NotNull SectionNode parent, @Nullable String description, @NotNull List<@NotNull ValueValidator<Integer>> validators, @NotNull JavaType type, @Nullable Integer defaultValue) {
+        super(key, parent, description, validators, type, defaultValue);
+        this.intValue = defaultValue == null ? 0 : defaultValue;
+    }
+
+    /**
+     * Gets the value of this node without boxing it.
+     *
+     * @return the value
+     */
+    public int intValue() {
+        return this.intValue;
+    }
+
+    /**
+     * Sets the value of this node. The value is only boxed if it
+     * changed and has to be validated, or has to be passed to a field.
+     *
+     * @param value the new value
+     * @throws IllegalArgumentException if the value fails validation
+     */
+    public void intValue(int value) {
+        final boolean changed = value != this.intValue;
+        if (changed && this.hasValidators()) {
+            this.check(value);
+        }
+        this.intValue = value;
+        this.changed(changed);
+    }
+
+    /**
+     * Atomically sets the value of this node if it is equal to the expected one.
+     *
+     * @param expected the expected current value
+     * @param value the new value
+     * @return true if the value was set, false if the current value was not the expected one
+     * @throws IllegalArgumentException if the new value fails validation
+     */
+    public boolean compareAndSet(int expected, int value) {
+        if (expected != value && this.hasValidators()) {
+            this.check(value);
+        }
+        if (!VALUE.compareAndSet(this, expected, value)) {
+            return false;
+        }
+        this.changed(expected != value);
+        return true;
+    }
+
+    @Override
+    boolean compareAndSetUnboxed(@NotNull Integer expected, @NotNull Integer value) {
+        return this.compareAndSet(expected.intValue(), value.intValue());
+    }
+
+    @Override
+    public @NotNull Integer value() {
+        return this.intValue;
+    }
+
+    @Override
+    @NotNull Class<Integer> boxType() {
+        return Integer.class;
+    }
+
+    @Override
+    @Nullable Object coerce(@Nullable Object value) {
+        return value instanceof Short || value instanceof Byte ? (Integer) ((Number) value).intValue() : value;
+    }
+
+    @Override
+    void store(@Nullable Object value) {
+        this.intValue = (Integer) value;
+    }
+
+    @Override
+    @Nullable Integer readUnboxed(@NotNull JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NUMBER_INT ? (Integer) parser.getIntValue() : null;
+    }
+}
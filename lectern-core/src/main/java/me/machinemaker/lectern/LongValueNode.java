@@ -0,0 +1,129 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JavaType;
+import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+
+/**
+ * A {@link ValueNode} storing an unboxed {@code long}.
+ */
+public final class LongValueNode extends UnboxedValueNode<Long> {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(LongValueNode.class, "longValue", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long longValue;
+
+    LongValueNode(@NotNull String key, @NotNull SectionNode parent, @Nullable String description, @NotNull List<@NotNull ValueValidator<Long>> validators, @NotNull JavaType type, @Nullable Long defaultValue) {
+        super(key, parent, description, validators, type, defaultValue);
+        this.longValue = defaultValue == null ? 0L : defaultValue;
+    }
+
+    /**
+     * Gets the value of this node without boxing it.
+     *
+     * @return the value
+     */
+    public long longValue() {
+        return this.longValue;
+    }
+
+    /**
+     * Sets the value of this node. The value is only boxed if it
+     * changed and has to be validated, or has to be passed to a field.
+     *
+     * @param value the new value
+     * @throws IllegalArgumentException if the value fails validation
+     */
+    public void longValue(long value) {
+        final boolean changed = value != this.longValue;
+        if (changed && this.hasValidators()) {
+            this.check(value);
+        }
+        this.longValue = value;
+        this.changed(changed);
+    }
+
+    /**
+     * Atomically sets the value of this node if it is equal to the expected one.
+     *
+     * @param expected the expected current value
+     * @param value the new value
+     * @return true if the value was set, false if the current value was not the expected one
+     * @throws IllegalArgumentException if the new value fails validation
+     */
+    public boolean compareAndSet(long expected, long value) {
+        if (expected != value && this.hasValidators()) {
+            this.check(value);
+        }
+        if (!VALUE.compareAndSet(this, expected, value)) {
+            return false;
+        }
+        this.changed(expected != value);
+        return true;
+    }
+
+    @Override
+    boolean compareAndSetUnboxed(@NotNull Long expected, @NotNull Long value) {
+        return this.compareAndSet(expected.longValue(), value.longValue());
+    }
+
+    @Override
+    public @NotNull Long value() {
+        return this.longValue;
+    }
+
+    @Override
+    @NotNull Class<Long> boxType() {
+        return Long.class;
+    }
+
+    @Override
+    @Nullable Object coerce(@Nullable Object value) {
+        return value instanceof Integer || value instanceof Short || value instanceof Byte ? (Long) ((Number) value).longValue() : value;
+    }
+
+    @Override
+    void store(@Nullable Object value) {
+        this.longValue = (Long) value;
+    }
+
+    @Override
+    @Nullable Long readUnboxed(@NotNull JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NUMBER_INT ? (Long) parser.getLongValue() : null;
+    }
+}
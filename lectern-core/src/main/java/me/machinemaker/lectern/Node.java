@@ -19,20 +19,40 @@
  */
 package me.machinemaker.lectern;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import me.machinemaker.lectern.contexts.SerializeContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 public abstract class Node {
 
+    private static final VarHandle CHANGES;
+    private static final VarHandle META;
+
+    static {
+        try {
+            CHANGES = MethodHandles.lookup().findVarHandle(Node.class, "changes", int.class);
+            META = MethodHandles.lookup().findVarHandle(Node.class, "meta", Map.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     protected final String key;
     protected final SectionNode parent;
     protected String description;
-    protected final Map<String, Object> meta = new HashMap<>();
+    private volatile Map<String, Object> meta;
+    private volatile boolean dirty = true;
+    private volatile int changes;
+    private volatile CachedSnapshot snapshot;
+    private String path;
 
     protected Node(@NotNull String key, @Nullable SectionNode parent) {
         this(key, parent, null);
@@ -57,26 +77,117 @@ public abstract class Node {
     }
 
     public void description(@Nullable String description) {
-        this.description = description;
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            this.markDirty();
+        }
     }
 
+    /**
+     * Gets the meta of this node. The map is created on first use
+     * and is synchronized, like {@link Collections#synchronizedMap(Map)}.
+     *
+     * @return the mutable meta map
+     */
+    @SuppressWarnings("unchecked")
     public @NotNull Map<String, Object> meta() {
-        return this.meta;
+        final Map<String, Object> meta = this.meta;
+        if (meta != null) {
+            return meta;
+        }
+        final Map<String, Object> created = Collections.synchronizedMap(new HashMap<>());
+        final Map<String, Object> witness = (Map<String, Object>) META.compareAndExchange(this, null, created);
+        return witness != null ? witness : created;
+    }
+
+    /**
+     * Adds meta to this node, without creating the meta map if there is none to add.
+     *
+     * @param meta the meta to add
+     */
+    final void addMeta(@NotNull Map<String, Object> meta) {
+        if (!meta.isEmpty()) {
+            this.meta().putAll(meta);
+        }
     }
 
     /**
-     * Gets the full path to this node.
+     * Checks if this node, or any node below it, changed
+     * since the configuration was last saved.
+     *
+     * @return true if changed
+     */
+    public boolean isDirty() {
+        return this.dirty;
+    }
+
+    /**
+     * Marks this node and every section above it as changed.
+     */
+    final void markDirty() {
+        for (Node next = this; next != null; next = next.parent) {
+            next.dirty = true;
+            CHANGES.getAndAdd(next, 1);
+        }
+    }
+
+    /**
+     * Marks this node as unchanged.
+     */
+    void markClean() {
+        this.dirty = false;
+    }
+
+    /**
+     * Gets an immutable snapshot of this node. Snapshots are cached and
+     * only rebuilt along the paths that changed since the last one. Each
+     * section rebuilt copies its children map, reusing the snapshots of
+     * unchanged children, so a snapshot after a change costs the width of
+     * the sections on the changed paths, not the size of the tree. Taking
+     * one when nothing changed returns the cached snapshot. The snapshot
+     * itself can be used from any thread.
+     *
+     * @return the snapshot
+     */
+    public @NotNull NodeSnapshot snapshot() {
+        final int changes = this.changes;
+        CachedSnapshot cached = this.snapshot;
+        if (cached == null || cached.changes != changes) {
+            // a change racing with the build bumps the counter again, so the
+            // result is only ever cached against the count it was built from
+            cached = new CachedSnapshot(this.createSnapshot(), changes);
+            this.snapshot = cached;
+        }
+        return cached.snapshot;
+    }
+
+    /**
+     * Gets the number of changes made to this node, or any node below it.
+     *
+     * @return the change count
+     */
+    final int changes() {
+        return this.changes;
+    }
+
+    private record CachedSnapshot(NodeSnapshot snapshot, int changes) {
+    }
+
+    abstract @NotNull NodeSnapshot createSnapshot();
+
+    /**
+     * Gets the full path to this node. The path is
+     * built on first use and cached.
      *
      * @return the full path
      */
     public @NotNull String path() {
-        StringBuilder pathBuilder = new StringBuilder(this.key());
-        SectionNode next = this.parent();
-        while (next != null && !next.isRoot()) {
-            pathBuilder.insert(0, next.key() + ".");
-            next = next.parent();
+        String path = this.path;
+        if (path == null) {
+            path = this.parent == null || this.parent.isRoot() ? this.key : this.parent.path() + "." + this.key;
+            this.path = path;
         }
-        return pathBuilder.toString();
+        return path;
     }
 
     /**
@@ -96,5 +207,27 @@ public abstract class Node {
         throw new IllegalStateException("Could not find root node for " + this.path());
     }
 
-    abstract @NotNull String asString(@NotNull SerializeContext context, int indent) throws JsonProcessingException;
+    /**
+     * Gets the configuration this node belongs to. Unlike {@link #root()},
+     * this includes a configuration node itself.
+     *
+     * @return the configuration, or null if this node isn't part of one
+     */
+    final @Nullable ConfigurationNode configuration() {
+        Node next = this;
+        while (next.parent != null) {
+            next = next.parent;
+        }
+        return next instanceof ConfigurationNode root ? root : null;
+    }
+
+    /**
+     * Writes this node to the writer.
+     *
+     * @param writer the writer
+     * @param context the serialize context
+     * @param indent the indentation of this node
+     * @throws IOException if writing fails
+     */
+    abstract void write(@NotNull IndentingWriter writer, @NotNull SerializeContext context, int indent) throws IOException;
 }
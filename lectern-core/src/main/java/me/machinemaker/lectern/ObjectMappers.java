@@ -0,0 +1,67 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one {@link ObjectMapper} per {@link JsonFactory} between configurations,
+ * so they all use the same serializer and deserializer caches instead of
+ * each resolving every type again.
+ * <p>
+ * Mappers are keyed by the factory instance, which holds the format and its
+ * settings, so only the constant factories of the built-in formats are passed
+ * here. Shared mappers must not be reconfigured. Configurations which need a
+ * differently configured mapper are given their own instead.
+ */
+@ApiStatus.Internal
+public final class ObjectMappers {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Map<JsonFactory, ObjectMapper> MAPPERS = new ConcurrentHashMap<>();
+
+    private ObjectMappers() {
+    }
+
+    /**
+     * Gets the shared mapper for a factory, creating it on first use.
+     *
+     * @param factory the constant factory of a format
+     * @return the shared mapper
+     */
+    public static @NotNull ObjectMapper shared(@NotNull JsonFactory factory) {
+        return MAPPERS.computeIfAbsent(factory, ObjectMapper::new);
+    }
+
+    /**
+     * Gets the shared mapper for plain JSON.
+     *
+     * @return the shared JSON mapper
+     */
+    public static @NotNull ObjectMapper json() {
+        return shared(JSON_FACTORY);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * An output stream that replaces the contents of a file in place. Bytes
+ * matching what the file already has are only compared, the file is
+ * written from the first difference on, so rewriting a file with the
+ * content it already has leaves it untouched.
+ */
+final class OverwritingOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileChannel channel;
+    private ByteBuffer existing;
+    private long position;
+    private boolean diverged;
+
+    OverwritingOutputStream(@NotNull Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte @NotNull [] b, int off, int len) throws IOException {
+        if (!this.diverged && this.matches(b, off, len)) {
+            this.position += len;
+            return;
+        }
+        this.diverged = true;
+        final ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+        while (buffer.hasRemaining()) {
+            this.position += this.channel.write(buffer, this.position);
+        }
+    }
+
+    private boolean matches(byte @NotNull [] b, int off, int len) throws IOException {
+        if (this.existing == null || this.existing.capacity() < len) {
+            this.existing = ByteBuffer.allocate(Math.max(len, BUFFER_SIZE));
+        }
+        this.existing.clear().limit(len);
+        while (this.existing.hasRemaining()) {
+            if (this.channel.read(this.existing, this.position + this.existing.position()) < 0) {
+                return false;
+            }
+        }
+        return Arrays.equals(this.existing.array(), 0, len, b, off, off + len);
+    }
+
+    /**
+     * Cuts off whatever the file had past the written content and closes it.
+     *
+     * @throws IOException if the file could not be truncated
+     */
+    @Override
+    public void close() throws IOException {
+        try (this.channel) {
+            if (this.channel.size() > this.position) {
+                this.channel.truncate(this.position);
+            }
+        }
+    }
+}
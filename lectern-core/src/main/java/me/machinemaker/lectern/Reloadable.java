@@ -46,6 +46,17 @@ public interface Reloadable {
      */
     void reload();
 
+    /**
+     * Reloads this reloadable object if its file changed
+     * since it was last loaded or saved.
+     *
+     * @return true if it was reloaded
+     */
+    default boolean reloadIfChanged() {
+        this.reload();
+        return true;
+    }
+
     /**
      * Saves this reloadable object
      */
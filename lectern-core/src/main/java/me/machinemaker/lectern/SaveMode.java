@@ -0,0 +1,43 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+/**
+ * Controls how a {@link ConfigurationNode} writes its file.
+ */
+public enum SaveMode {
+    /**
+     * Truncates the file and writes into it in place. Readers
+     * can see a partially written file while a save is running.
+     */
+    DIRECT,
+    /**
+     * Writes to a uniquely named sibling temp file and atomically moves
+     * it over the file, so readers only ever see a complete file.
+     */
+    ATOMIC,
+    /**
+     * Same as {@link #ATOMIC}, but forces the temp file to the storage
+     * device before it is moved and the directory after it is moved, so
+     * a complete file survives a crash. Directories are not forced on
+     * platforms which can't open them, like Windows.
+     */
+    ATOMIC_SYNC
+}
@@ -19,19 +19,19 @@
  */
 package me.machinemaker.lectern;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.TreeNode;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import me.machinemaker.lectern.contexts.LoadContext;
 import me.machinemaker.lectern.contexts.SerializeContext;
-import me.machinemaker.lectern.exceptions.validations.ValidationException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -44,22 +44,31 @@ import java.util.function.Consumer;
 public class SectionNode extends Node {
 
     private final Map<@NotNull String, @NotNull Node> children;
+    private final Map<@NotNull String, @NotNull Node> childrenView;
 
     protected SectionNode(@NotNull String key, @Nullable SectionNode parent) {
         this(key, parent, null);
     }
 
     protected SectionNode(@NotNull String key, @Nullable SectionNode parent, @Nullable String description) {
-        this(key, parent, description, new LinkedHashMap<>());
+        this(key, parent, description, new ArrayMap<>());
     }
 
     protected SectionNode(@NotNull String key, @Nullable SectionNode parent, @Nullable String description, Map<@NotNull String, @NotNull Node> children) {
         super(key, parent, description);
         this.children = children;
+        this.childrenView = Collections.unmodifiableMap(children);
     }
 
+    /**
+     * Gets an unmodifiable view of the children of this section. Use
+     * {@link #addChild(Node)}, {@link #removeChild(String)} and {@link #clear()}
+     * to change them, so the configuration's path index stays current.
+     *
+     * @return the children
+     */
     public final @NotNull Map<@NotNull String, Node> children() {
-        return this.children;
+        return this.childrenView;
     }
 
     /**
@@ -161,7 +170,7 @@ public class SectionNode extends Node {
      * @return the section node for chaining
      */
     public <T> @NotNull SectionNode addChild(@NotNull String key, @Nullable String description, @NotNull JavaType type, @Nullable T value) {
-        return this.addChild(new ValueNode<>(key, this, description, type, value));
+        return this.addChild(ValueNode.create(key, this, description, Collections.emptyList(), type, value));
     }
 
     /**
@@ -171,10 +180,45 @@ public class SectionNode extends Node {
      * @return the section node for chaining
      */
     public @NotNull SectionNode addChild(@NotNull Node node) {
-        this.children.put(node.key(), node);
+        // the section lock keeps the index in step with the children when two writers replace the same key
+        synchronized (this.children) {
+            final Node previous = this.children.put(node.key(), node);
+            final ConfigurationNode root = this.configuration();
+            if (root != null) {
+                if (previous != null) {
+                    root.unindex(previous);
+                }
+                root.index(node);
+                root.structureChanged();
+            }
+        }
+        this.markDirty();
         return this;
     }
 
+    /**
+     * Removes a child node.
+     *
+     * @param key the key of the child
+     * @return the removed node, or null if there was no child with that key
+     */
+    public @Nullable Node removeChild(@NotNull String key) {
+        final Node removed;
+        synchronized (this.children) {
+            removed = this.children.remove(key);
+            if (removed == null) {
+                return null;
+            }
+            final ConfigurationNode root = this.configuration();
+            if (root != null) {
+                root.unindex(removed);
+                root.structureChanged();
+            }
+        }
+        this.markDirty();
+        return removed;
+    }
+
     /**
      * Creates a new {@link SectionNode}.
      *
@@ -182,7 +226,7 @@ public class SectionNode extends Node {
      * @return the new section
      */
     public @NotNull SectionNode addSection(@NotNull String key) {
-        SectionNode section = new SectionNode(key, this);
+        SectionNode section = new SectionNode(key, this, null, this.newChildren());
         this.addChild(section);
         return section;
     }
@@ -195,7 +239,7 @@ public class SectionNode extends Node {
      * @return the new section
      */
     public @NotNull SectionNode addSection(@NotNull String key, @Nullable String description) {
-        SectionNode section = new SectionNode(key, this, description);
+        SectionNode section = new SectionNode(key, this, description, this.newChildren());
         this.addChild(section);
         return section;
     }
@@ -220,14 +264,11 @@ public class SectionNode extends Node {
      */
     public @Nullable Node getNode(@NotNull String path) {
         final String[] pathArray = path.split("\\.");
-        if (!children.containsKey(pathArray[0])) {
-            return null;
-        }
-        if (pathArray.length == 1) {
-            return children.get(pathArray[0]);
-        } else {
-            return ((SectionNode) children.get(pathArray[0])).getNode(path.substring(path.indexOf('.') + 1));
+        final Node node = this.children.get(pathArray[0]);
+        if (node == null || pathArray.length == 1) {
+            return node;
         }
+        return ((SectionNode) node).getNode(path.substring(path.indexOf('.') + 1));
     }
 
     /**
@@ -287,22 +328,26 @@ public class SectionNode extends Node {
     @SuppressWarnings("unchecked")
     public <T> @NotNull ValueNode<T> set(@NotNull String path, @NotNull JavaType type, @Nullable T value) {
         final String[] pathArray = path.split("\\.");
-        final Node node = this.children().get(pathArray[0]);
+        Node node = this.children().get(pathArray[0]);
         if (node == null) {
-            if (pathArray.length == 1) {
-                this.addChild(pathArray[0], type, value);
-                return (ValueNode<T>) this.children().get(pathArray[0]);
-            } else {
-                return this.addSection(pathArray[0]).set(path.substring(path.indexOf('.') + 1), type, value);
+            // the section lock keeps two writers from both creating the missing node
+            synchronized (this.children) {
+                node = this.children().get(pathArray[0]);
+                if (node == null) {
+                    if (pathArray.length == 1) {
+                        this.addChild(pathArray[0], type, value);
+                        return (ValueNode<T>) this.children().get(pathArray[0]);
+                    }
+                    node = this.addSection(pathArray[0]);
+                }
             }
+        }
+        if (node instanceof SectionNode sectionNode) {
+            return sectionNode.set(path.substring(path.indexOf('.') + 1), type, value);
         } else {
-            if (node instanceof SectionNode sectionNode) {
-                return sectionNode.set(path.substring(path.indexOf('.') + 1), type, value);
-            } else {
-                ValueNode<T> valueNode = (ValueNode<T>) node;
-                valueNode.value(value);
-                return valueNode;
-            }
+            ValueNode<T> valueNode = (ValueNode<T>) node;
+            valueNode.value(value);
+            return valueNode;
         }
     }
 
@@ -315,47 +360,108 @@ public class SectionNode extends Node {
         return Objects.equals(this.key, "");
     }
 
+    /**
+     * Creates the children map of a new section below this one,
+     * concurrent if this section's children are.
+     *
+     * @return the new map
+     */
+    private @NotNull Map<@NotNull String, @NotNull Node> newChildren() {
+        return this.children instanceof CopyOnWriteLinkedMap ? new CopyOnWriteLinkedMap<>() : new ArrayMap<>();
+    }
+
     public void clear() {
-        this.children().clear();
+        synchronized (this.children) {
+            final ConfigurationNode root = this.configuration();
+            if (root != null) {
+                for (Node child : this.children.values()) {
+                    root.unindex(child);
+                }
+            }
+            this.children.clear();
+            if (root != null) {
+                root.structureChanged();
+            }
+        }
+        this.markDirty();
     }
 
-    final void load(@NotNull TreeNode node, LoadContext context) {
-        if (node instanceof ObjectNode objectNode) {
-            objectNode.fields().forEachRemaining(entry -> {
-                final String key = entry.getKey();
-                final JsonNode value = entry.getValue();
-                if (!this.children().containsKey(key)) {
-                    context.invalidKeyHandler().handleInvalidKey(key, context);
-                } else if (value instanceof ObjectNode childObjectNode && this.children().get(key) instanceof SectionNode sectionNode) {
-                    sectionNode.load(childObjectNode, context);
-                } else {
-                    ValueNode<?> valueNode = (ValueNode<?>) this.children.get(key);
-                    Object object;
-                    try {
-                        object = context.mapper().convertValue(value, valueNode.type());
-                    } catch (IllegalArgumentException e) {
-                        throw new IllegalArgumentException("Could not set value of " + valueNode.path() + " to " + value + " from " + context.root().file(), e.getCause() == null ? e : e.getCause());
-                    }
-                    valueNode.setValue(object);
+
+    @Override
+    public @NotNull SectionSnapshot snapshot() {
+        return (SectionSnapshot) super.snapshot();
+    }
+
+    @Override
+    @NotNull SectionSnapshot createSnapshot() {
+        // a full copy of this section's children, only the child snapshots are shared
+        final Map<String, NodeSnapshot> children = new LinkedHashMap<>(this.children.size());
+        for (Node child : this.children.values()) {
+            children.put(child.key(), child.snapshot());
+        }
+        return new SectionSnapshot(this.key, this.description, Collections.unmodifiableMap(children));
+    }
+
+    @Override
+    void markClean() {
+        super.markClean();
+        for (Node child : this.children.values()) {
+            child.markClean();
+        }
+    }
+
+    /**
+     * Reads the values of the object the parser is positioned on
+     * for the children of this section.
+     *
+     * @param parser the parser, positioned on a {@link JsonToken#START_OBJECT}
+     * @param context the load context
+     * @param staged collects the values read, to be validated and committed once the whole file is read
+     * @throws IOException if the parser fails
+     */
+    final void load(@NotNull JsonParser parser, @NotNull LoadContext context, @NotNull StagedValues staged) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            final JsonToken token = parser.nextToken();
+            final Node child = this.children().get(key);
+            if (child == null) {
+                context.invalidKeyHandler().handleInvalidKey(key, context);
+                parser.skipChildren();
+            } else if (child instanceof SectionNode sectionNode) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Could not load " + sectionNode.path() + " from " + context.root().file() + " because it is not a section");
+                }
+                sectionNode.load(parser, context, staged);
+            } else {
+                final ValueNode<?> valueNode = (ValueNode<?>) child;
+                final Object object;
+                try {
+                    object = valueNode.read(parser, context);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Could not set value of " + valueNode.path() + " from " + context.root().file(), e);
                 }
-            });
+                staged.add(valueNode, object);
+            }
         }
     }
 
     @Override
-    final @NotNull String asString(@NotNull SerializeContext context, int indent) throws JsonProcessingException {
-        StringBuilder builder = new StringBuilder();
+    final void write(@NotNull IndentingWriter writer, @NotNull SerializeContext context, int indent) throws IOException {
         for (Node child : this.children().values()) {
-            if (child instanceof ValueNode) {
-                builder.append(child.asString(context, indent));
-            } else {
+            if (child instanceof SectionNode) {
+                writer.indent(indent);
                 if (child.description() != null) {
-                    builder.append(" ".repeat(indent)).append(context.commentChar()).append(" ").append(child.description()).append("\n");
+                    writer.write(context.commentChar());
+                    writer.write(' ');
+                    writer.write(child.description());
+                    writer.write('\n');
                 }
-                builder.append(" ".repeat(indent)).append(child.key()).append(":\n")
-                        .append(child.asString(context, indent + context.indentSize()));
+                writer.write(child.key());
+                writer.write(":\n");
+                child.write(writer, context, indent + context.indentSize());
+            } else {
+                child.write(writer, context, indent);
             }
         }
-        return builder.toString();
     }
 }
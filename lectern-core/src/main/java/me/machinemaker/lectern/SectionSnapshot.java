@@ -0,0 +1,93 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * An immutable view of a {@link SectionNode}. Snapshots share every
+ * subtree that did not change between them, each section that did
+ * change gets its own copy of its children map.
+ */
+public final class SectionSnapshot implements NodeSnapshot {
+
+    private final String key;
+    private final String description;
+    private final Map<String, NodeSnapshot> children;
+
+    SectionSnapshot(@NotNull String key, @Nullable String description, @NotNull Map<String, NodeSnapshot> children) {
+        this.key = key;
+        this.description = description;
+        this.children = children;
+    }
+
+    @Override
+    public @NotNull String key() {
+        return this.key;
+    }
+
+    @Override
+    public @Nullable String description() {
+        return this.description;
+    }
+
+    public @NotNull Map<@NotNull String, @NotNull NodeSnapshot> children() {
+        return this.children;
+    }
+
+    /**
+     * Get a node from a `.`-separated path.
+     *
+     * @param path the path to search for the node on
+     * @return the node, or null if none found
+     */
+    public @Nullable NodeSnapshot getNode(@NotNull String path) {
+        SectionSnapshot section = this;
+        int start = 0;
+        int end;
+        while ((end = path.indexOf('.', start)) != -1) {
+            if (!(section.children.get(path.substring(start, end)) instanceof SectionSnapshot next)) {
+                return null;
+            }
+            section = next;
+            start = end + 1;
+        }
+        return section.children.get(path.substring(start));
+    }
+
+    /**
+     * Get a value, either a {@link SectionSnapshot} or the value
+     * of a value snapshot, from a path.
+     *
+     * @param path the path to search
+     * @return the value, or {@link SectionSnapshot} or null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T get(@NotNull String path) {
+        final NodeSnapshot node = this.getNode(path);
+        if (node instanceof ValueSnapshot<?> value) {
+            return (T) value.value();
+        }
+        return (T) node;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import me.machinemaker.lectern.validations.ValidationResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The values read by a reload, staged so they can be validated
+ * together and only committed to their nodes if all of them pass.
+ */
+final class StagedValues {
+
+    private static final int MIN_BATCH_SIZE = 64;
+
+    private final List<ValueNode<?>> nodes = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+
+    void add(@NotNull ValueNode<?> node, @Nullable Object value) {
+        this.nodes.add(node);
+        this.values.add(value);
+    }
+
+    int size() {
+        return this.nodes.size();
+    }
+
+    /**
+     * Validates all staged values. The values are staged in tree order, so
+     * splitting them into ranges keeps sections together.
+     *
+     * @param pool the pool to validate on, or null to always validate on the current thread
+     * @param threshold the number of values from which the pool is used
+     * @return the failure messages by path, in tree order
+     */
+    @NotNull Map<String, String> validate(@Nullable ForkJoinPool pool, int threshold) {
+        final ValidationResult[] results = new ValidationResult[this.size()];
+        if (pool != null && results.length >= threshold) {
+            final int batchSize = Math.max(MIN_BATCH_SIZE, results.length / (pool.getParallelism() * 4));
+            pool.invoke(new ValidateTask(results, 0, results.length, batchSize));
+        } else {
+            this.validate(results, 0, results.length);
+        }
+        final Map<String, String> errors = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            if (!results[i].isValid()) {
+                errors.put(this.nodes.get(i).path(), results[i].message(this.values.get(i)));
+            }
+        }
+        return errors;
+    }
+
+    private void validate(@NotNull ValidationResult @NotNull [] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            final ValueNode<?> node = this.nodes.get(i);
+            final Object value = this.values.get(i);
+            results[i] = node.isUnchanged(value) ? ValidationResult.valid() : node.validate(value);
+        }
+    }
+
+    /**
+     * Sets all staged values on their nodes.
+     */
+    void commit() {
+        for (int i = 0; i < this.nodes.size(); i++) {
+            this.nodes.get(i).commit(this.values.get(i));
+        }
+    }
+
+    private final class ValidateTask extends RecursiveAction {
+
+        static final long serialVersionUID = 1L;
+
+        private final ValidationResult[] results;
+        private final int from;
+        private final int to;
+        private final int batchSize;
+
+        private ValidateTask(@NotNull ValidationResult @NotNull [] results, int from, int to, int batchSize) {
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.batchSize) {
+                StagedValues.this.validate(this.results, this.from, this.to);
+            } else {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new ValidateTask(this.results, this.from, middle, this.batchSize), new ValidateTask(this.results, middle, this.to, this.batchSize));
+            }
+        }
+    }
+}
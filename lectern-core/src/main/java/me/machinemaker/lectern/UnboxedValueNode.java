@@ -0,0 +1,105 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import me.machinemaker.lectern.contexts.LoadContext;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The shared part of the {@link ValueNode}s storing an unboxed primitive.
+ * Subclasses keep the value in a volatile primitive field, which is the only
+ * place it is stored, and add typed accessors that never box it.
+ *
+ * @param <T> the box type of the stored primitive
+ */
+abstract sealed class UnboxedValueNode<T> extends ValueNode<T> permits IntValueNode, LongValueNode, DoubleValueNode, BooleanValueNode {
+
+    UnboxedValueNode(@NotNull String key, @NotNull SectionNode parent, @Nullable String description, @NotNull List<@NotNull ValueValidator<T>> validators, @NotNull JavaType type, @Nullable T defaultValue) {
+        super(key, parent, description, validators, type, defaultValue, false);
+    }
+
+    /**
+     * Gets the box type of the stored primitive.
+     *
+     * @return the box type
+     */
+    abstract @NotNull Class<T> boxType();
+
+    /**
+     * Atomically sets the unboxed value of this node if it is equal to the expected one.
+     *
+     * @param expected the expected current value
+     * @param value the new value
+     * @return true if the value was set, false if the current value was not the expected one
+     * @throws IllegalArgumentException if the new value fails validation
+     */
+    abstract boolean compareAndSetUnboxed(@NotNull T expected, @NotNull T value);
+
+    /**
+     * Reads the primitive value from the current token,
+     * if the token holds one.
+     *
+     * @param parser the parser positioned at the value
+     * @return the read value, or null if the token holds a different type
+     * @throws IOException if the value could not be read
+     */
+    abstract @Nullable T readUnboxed(@NotNull JsonParser parser) throws IOException;
+
+    @Override
+    public abstract @NotNull T value();
+
+    @Override
+    abstract void store(@Nullable Object value);
+
+    /**
+     * Atomically sets the value of this node if it is equal to the expected one.
+     *
+     * @param expected the expected current value
+     * @param value the new value
+     * @return true if the value was set, false if the current value was not the expected one
+     * @throws IllegalArgumentException if the new value is null or fails validation
+     */
+    @Override
+    public final boolean compareAndSet(@Nullable T expected, @Nullable T value) {
+        if (value == null) {
+            throw this.invalidValue(null, ValidationResult.invalid());
+        }
+        return expected != null && this.compareAndSetUnboxed(expected, value);
+    }
+
+    @Override
+    public final @NotNull ValidationResult validate(@Nullable Object value) {
+        return this.boxType().isInstance(value) ? super.validate(value) : ValidationResult.invalid();
+    }
+
+    @Override
+    final @Nullable Object read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+        final T value = this.readUnboxed(parser);
+        return value != null ? value : super.read(parser, context);
+    }
+}
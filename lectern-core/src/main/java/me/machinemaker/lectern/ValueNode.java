@@ -19,27 +19,48 @@
  */
 package me.machinemaker.lectern;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JavaType;
+import me.machinemaker.lectern.contexts.LoadContext;
 import me.machinemaker.lectern.contexts.SerializeContext;
-import me.machinemaker.lectern.exceptions.validations.ValidationException;
+import me.machinemaker.lectern.validations.ValidationResult;
 import me.machinemaker.lectern.validations.ValueValidator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
-public final class ValueNode<T> extends Node {
+/**
+ * A node holding a single value. Nodes for {@code int}, {@code long},
+ * {@code double} and {@code boolean} values are created as
+ * {@link IntValueNode}, {@link LongValueNode}, {@link DoubleValueNode} and
+ * {@link BooleanValueNode}, which store the value unboxed.
+ *
+ * @param <T> the value type
+ */
+public sealed class ValueNode<T> extends Node permits UnboxedValueNode {
+
+    private static final VarHandle VALUE;
 
-    private final JavaType type;
-    private List<ValueValidator<T>> validators;
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(ValueNode.class, "value", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ValueSchema<T> schema;
     private final T defaultValue;
-    private T value;
-    Consumer<T> callback = t -> {};
+    private volatile T value;
+    @Nullable Consumer<T> callback;
 
     ValueNode(@NotNull String key, @NotNull SectionNode parent, @NotNull JavaType type, @Nullable T defaultValue) {
         this(key, parent, Collections.emptyList(), type, defaultValue);
@@ -54,72 +75,293 @@ public final class ValueNode<T> extends Node {
     }
 
     ValueNode(@NotNull String key, @NotNull SectionNode parent, @Nullable String description, @NotNull List<@NotNull ValueValidator<T>> validators, @NotNull JavaType type, @Nullable T defaultValue) {
+        this(key, parent, description, validators, type, defaultValue, true);
+    }
+
+    /**
+     * @param boxed false if a subclass stores the value itself, which leaves the boxed value unused
+     */
+    ValueNode(@NotNull String key, @NotNull SectionNode parent, @Nullable String description, @NotNull List<@NotNull ValueValidator<T>> validators, @NotNull JavaType type, @Nullable T defaultValue, boolean boxed) {
         super(key, parent, description);
-        this.type = type;
-        this.validators = List.copyOf(validators);
+        this.schema = this.share(new ValueSchema<>(type, List.copyOf(validators)));
         this.defaultValue = defaultValue;
-        this.value = defaultValue;
+        if (boxed) {
+            this.value = defaultValue;
+        }
     }
 
     public JavaType type() {
-        return this.type;
+        return this.schema.type();
     }
 
     public @NotNull List<@NotNull ValueValidator<T>> validators() {
-        return this.validators;
+        return this.schema.validators();
     }
 
     public void validators(@NotNull List<@NotNull ValueValidator<T>> validators) {
-        this.validators = validators;
+        this.schema = this.share(new ValueSchema<>(this.schema.type(), List.copyOf(validators)));
+    }
+
+    private @NotNull ValueSchema<T> share(@NotNull ValueSchema<T> schema) {
+        final ConfigurationNode root = this.configuration();
+        return root != null ? root.schema(schema) : schema;
+    }
+
+    /**
+     * Creates a value node, unboxed if the type is a supported primitive.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> @NotNull ValueNode<T> create(@NotNull String key, @NotNull SectionNode parent, @Nullable String description, @NotNull List<@NotNull ValueValidator<T>> validators, @NotNull JavaType type, @Nullable T defaultValue) {
+        final Class<?> rawType = type.getRawClass();
+        if (rawType == int.class) {
+            return (ValueNode<T>) new IntValueNode(key, parent, description, (List) validators, type, (Integer) defaultValue);
+        } else if (rawType == long.class) {
+            return (ValueNode<T>) new LongValueNode(key, parent, description, (List) validators, type, (Long) defaultValue);
+        } else if (rawType == double.class) {
+            return (ValueNode<T>) new DoubleValueNode(key, parent, description, (List) validators, type, (Double) defaultValue);
+        } else if (rawType == boolean.class) {
+            return (ValueNode<T>) new BooleanValueNode(key, parent, description, (List) validators, type, (Boolean) defaultValue);
+        }
+        return new ValueNode<>(key, parent, description, validators, type, defaultValue);
     }
 
     public @Nullable T defaultValue() {
         return this.defaultValue;
     }
 
+    /**
+     * Validates a value against the validators of this node,
+     * stopping at the first failure.
+     *
+     * @param value the value to validate
+     * @return the result of the first failing validator, or a valid result
+     */
     @SuppressWarnings("unchecked")
-    public boolean isValid(Object value) {
-        try {
-            return this.validators.stream().allMatch(validator -> validator.validate((T) value));
-        } catch (ClassCastException e) {
-            return false;
-        } catch (ValidationException e) {
-            throw new IllegalArgumentException("Could not set value of " + this.path() + " to " + value + " from " + this.root().file() + " because " + e.getMessage(), e);
+    public @NotNull ValidationResult validate(@Nullable Object value) {
+        for (ValueValidator<T> validator : this.schema.validators()) {
+            final ValidationResult result;
+            try {
+                result = validator.check((T) value);
+            } catch (ClassCastException e) {
+                return ValidationResult.invalid();
+            }
+            if (!result.isValid()) {
+                return result;
+            }
         }
+        return ValidationResult.valid();
+    }
+
+    public boolean isValid(Object value) {
+        return this.validate(value).isValid();
     }
 
     public void value(@Nullable T value) {
-        if (isValid(value)) {
-            this.callback.accept(value);
-            this.value = value;
-        } else {
-            throw new IllegalArgumentException(value + " is not a valid value for this node");
-        }
+        this.setValue(value);
     }
 
     public @Nullable T value() {
         return this.value;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Reads a value of this node's type from the current token.
+     *
+     * @param parser the parser positioned at the value
+     * @param context the load context
+     * @return the read value
+     * @throws IOException if the value could not be read
+     */
+    @Nullable Object read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+        return this.schema.read(parser, context);
+    }
+
+    /**
+     * Sets the value of this node. Setting a value equal to the current one
+     * skips the validators and leaves the node clean, the callback still gets
+     * the value so a bound field written directly matches the node again.
+     * Setting the same mutable instance again is always treated as a change,
+     * as it may have been modified in place.
+     *
+     * @param value the new value
+     * @throws IllegalArgumentException if the value fails validation
+     */
     void setValue(@Nullable Object value) {
-        if (isValid(value)) {
+        final ValidationResult result = this.trySetValue(value);
+        if (!result.isValid()) {
+            throw this.invalidValue(value, result);
+        }
+    }
+
+    /**
+     * Atomically sets the value of this node if the current value is
+     * the same instance as the expected one.
+     *
+     * @param expected the expected current value
+     * @param value the new value
+     * @return true if the value was set, false if the current value was not the expected one
+     * @throws IllegalArgumentException if the new value fails validation
+     */
+    public boolean compareAndSet(@Nullable T expected, @Nullable T value) {
+        final boolean changed = !isSame(expected, value);
+        if (changed) {
+            this.check(value);
+        }
+        if (!VALUE.compareAndSet(this, expected, value)) {
+            return false;
+        }
+        this.changed(changed);
+        return true;
+    }
+
+    /**
+     * Validates a value, throwing if it is invalid.
+     *
+     * @param value the value
+     * @throws IllegalArgumentException if the value fails validation
+     */
+    final void check(@Nullable Object value) {
+        final ValidationResult result = this.validate(value);
+        if (!result.isValid()) {
+            throw this.invalidValue(value, result);
+        }
+    }
+
+    final @NotNull IllegalArgumentException invalidValue(@Nullable Object value, @NotNull ValidationResult result) {
+        return new IllegalArgumentException("Could not set value of " + this.path() + " to " + value + " from " + this.root().file() + " because " + result.message(value), result.error());
+    }
+
+    /**
+     * Sets the value of this node if it passes validation.
+     *
+     * @param value the new value
+     * @return the validation result, the value was only set if it is valid
+     * @see #setValue(Object)
+     */
+    @NotNull ValidationResult trySetValue(@Nullable Object value) {
+        value = this.coerce(value);
+        if (this.isUnchanged(value)) {
+            this.commit(value);
+            return ValidationResult.valid();
+        }
+        final ValidationResult result = this.validate(value);
+        if (result.isValid()) {
+            this.commit(value);
+        }
+        return result;
+    }
+
+    /**
+     * Converts a value to the type stored by this node,
+     * if that can be done without losing anything.
+     *
+     * @param value the value
+     * @return the converted value, or the value itself
+     */
+    @Nullable Object coerce(@Nullable Object value) {
+        return value;
+    }
+
+    /**
+     * Checks if setting a value would leave this node unchanged.
+     *
+     * @param value the value
+     * @return true if the value is equal to the current one
+     */
+    boolean isUnchanged(@Nullable Object value) {
+        return isSame(value, this.value());
+    }
+
+    private static boolean isSame(@Nullable Object value, @Nullable Object other) {
+        return value == other ? isImmutable(value) : Objects.equals(value, other);
+    }
+
+    /**
+     * Sets an already validated value.
+     *
+     * @param value the new value
+     */
+    @SuppressWarnings("unchecked")
+    final void commit(@Nullable Object value) {
+        final boolean changed = !this.isUnchanged(value);
+        if (this.callback != null) {
             this.callback.accept((T) value);
-            this.value = (T) value;
-        } else {
-            throw new IllegalArgumentException(value + " is not a valid value for this node");
+        }
+        this.store(value);
+        if (changed) {
+            // marked after the write, so a snapshot taken in between is never cached as current
+            this.markDirty();
         }
     }
 
+    /**
+     * Stores an already validated value without any checks.
+     *
+     * @param value the new value
+     */
+    @SuppressWarnings("unchecked")
+    void store(@Nullable Object value) {
+        this.value = (T) value;
+    }
+
+    /**
+     * Notifies the callback after the value of this node was set.
+     *
+     * @param changed if the value differs from the previous one, which marks this node changed
+     */
+    final void changed(boolean changed) {
+        if (this.callback != null) {
+            this.callback.accept(this.value());
+        }
+        if (changed) {
+            this.markDirty();
+        }
+    }
+
+    /**
+     * Checks if this node has any validators. Unboxed nodes
+     * only box values that have to be validated.
+     *
+     * @return true if there are validators
+     */
+    final boolean hasValidators() {
+        return !this.schema.validators().isEmpty();
+    }
+
+    private static boolean isImmutable(@Nullable Object value) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Character || value instanceof Enum<?>
+                || value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float || value instanceof Short || value instanceof Byte;
+    }
+
     @Override
-    @NotNull String asString(@NotNull SerializeContext context, int indent) throws JsonProcessingException {
-        if (this.value() != null) {
-            String output = context.mapper().writeValueAsString(Map.of(this.key(), this.value()));
+    @SuppressWarnings("unchecked")
+    public @NotNull ValueSnapshot<T> snapshot() {
+        return (ValueSnapshot<T>) super.snapshot();
+    }
+
+    @Override
+    @NotNull ValueSnapshot<T> createSnapshot() {
+        return new ValueSnapshot<>(this.key, this.description, this.schema.type(), this.value());
+    }
+
+    @Override
+    void write(@NotNull IndentingWriter writer, @NotNull SerializeContext context, int indent) throws IOException {
+        final T value = this.value();
+        if (value != null) {
+            writer.indent(indent);
             if (this.description() != null) {
-                output = context.commentChar() + " " + this.description() + "\n" + output;
+                writer.write(context.commentChar());
+                writer.write(' ');
+                writer.write(this.description());
+                writer.write('\n');
+            }
+            try (JsonGenerator generator = context.createGenerator(writer)) {
+                generator.writeStartObject();
+                generator.writeFieldName(this.key());
+                this.schema.write(generator, value, context);
+                generator.writeEndObject();
             }
-            return output.lines().map(s -> " ".repeat(indent) + s).collect(Collectors.joining("\n")) + "\n";
+            writer.endLine();
         }
-        return "";
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import me.machinemaker.lectern.codecs.CodecRegistry;
+import me.machinemaker.lectern.codecs.ValueCodec;
+import me.machinemaker.lectern.contexts.LoadContext;
+import me.machinemaker.lectern.contexts.SerializeContext;
+import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The type and validators of a {@link ValueNode}. Value nodes of a
+ * configuration with equal schemas share one instance, along with
+ * the codec, reader and writer resolved for the type.
+ *
+ * @param <T> the value type
+ */
+final class ValueSchema<T> {
+
+    private final JavaType type;
+    private final List<ValueValidator<T>> validators;
+    private volatile @Nullable Resolved<ValueCodec<T>> codec;
+    private volatile @Nullable Resolved<ObjectReader> reader;
+    private volatile @Nullable Resolved<ObjectWriter> writer;
+
+    ValueSchema(@NotNull JavaType type, @NotNull List<@NotNull ValueValidator<T>> validators) {
+        this.type = type;
+        this.validators = validators;
+    }
+
+    @NotNull JavaType type() {
+        return this.type;
+    }
+
+    @NotNull List<@NotNull ValueValidator<T>> validators() {
+        return this.validators;
+    }
+
+    /**
+     * Reads a value of this schema's type, with its codec if it has one.
+     *
+     * @param parser the parser positioned at the value
+     * @param context the load context
+     * @return the read value
+     * @throws IOException if the value could not be read
+     */
+    @Nullable T read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+        final ValueCodec<T> codec = this.codec(context.codecs());
+        return codec != null ? codec.read(parser, context) : this.reader(context).readValue(parser);
+    }
+
+    /**
+     * Writes a value of this schema's type, with its codec if it has one.
+     *
+     * @param generator the generator to write to
+     * @param value the value to write
+     * @param context the serialize context
+     * @throws IOException if the value could not be written
+     */
+    void write(@NotNull JsonGenerator generator, @NotNull T value, @NotNull SerializeContext context) throws IOException {
+        final ValueCodec<T> codec = this.codec(context.codecs());
+        if (codec != null) {
+            codec.write(generator, value, context);
+        } else {
+            this.writer(context).writeValue(generator, value);
+        }
+    }
+
+    /**
+     * Gets the codec for the value type, resolving it on first use.
+     *
+     * @param codecs the codec registry
+     * @return the codec, or null if the type is read and written by Jackson
+     */
+    @Nullable ValueCodec<T> codec(@NotNull CodecRegistry codecs) {
+        final Resolved<ValueCodec<T>> codec = this.codec;
+        if (codec != null && codec.owner() == codecs) {
+            return codec.value();
+        }
+        final ValueCodec<T> resolved = codecs.find(this.type);
+        this.codec = new Resolved<>(codecs, resolved);
+        return resolved;
+    }
+
+    /**
+     * Gets the reader for the value type, resolving it on first use.
+     *
+     * @param context the load context
+     * @return the reader
+     */
+    @NotNull ObjectReader reader(@NotNull LoadContext context) {
+        final Resolved<ObjectReader> reader = this.reader;
+        if (reader != null && reader.owner() == context) {
+            return reader.value();
+        }
+        final ObjectReader resolved = context.reader(this.type);
+        this.reader = new Resolved<>(context, resolved);
+        return resolved;
+    }
+
+    /**
+     * Gets the writer for the value type, resolving it on first use.
+     *
+     * @param context the serialize context
+     * @return the writer
+     */
+    @NotNull ObjectWriter writer(@NotNull SerializeContext context) {
+        final Resolved<ObjectWriter> writer = this.writer;
+        if (writer != null && writer.owner() == context) {
+            return writer.value();
+        }
+        final ObjectWriter resolved = context.writer(this.type);
+        this.writer = new Resolved<>(context, resolved);
+        return resolved;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof ValueSchema<?> that && this.type.equals(that.type) && this.validators.equals(that.validators);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.type, this.validators);
+    }
+
+    private record Resolved<V>(@NotNull Object owner, @Nullable V value) {
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An immutable view of a {@link ValueNode}. The value itself is shared
+ * with the node, so mutable values should not be modified in place.
+ *
+ * @param key the key
+ * @param description the description
+ * @param type the value type
+ * @param value the value
+ * @param <T> the value type
+ */
+public record ValueSnapshot<T>(@NotNull String key, @Nullable String description, @NotNull JavaType type, @Nullable T value) implements NodeSnapshot {
+}
@@ -22,6 +22,8 @@ package me.machinemaker.lectern.annotations.validations;
 import me.machinemaker.lectern.exceptions.validations.RegExpValidationException;
 import me.machinemaker.lectern.exceptions.validations.ValidationException;
 import me.machinemaker.lectern.validations.FieldValueValidator;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -29,6 +31,8 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 @Documented
@@ -42,13 +46,28 @@ public @interface RegExp {
 
     class Validator extends FieldValueValidator<CharSequence, RegExp> {
 
+        private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+
         @Override
         public boolean validate(CharSequence object, Field field, RegExp annotation) throws ValidationException {
-            Pattern pattern = Pattern.compile(annotation.value());
+            final ValidationResult result = checkPattern(object, field, this.patterns.computeIfAbsent(annotation.value(), Pattern::compile));
+            if (!result.isValid()) {
+                throw result.error();
+            }
+            return true;
+        }
+
+        @Override
+        protected ValueValidator<CharSequence> prepare(Field field, RegExp annotation) {
+            final Pattern pattern = Pattern.compile(annotation.value());
+            return ValueValidator.of(object -> checkPattern(object, field, pattern));
+        }
+
+        private static ValidationResult checkPattern(CharSequence object, Field field, Pattern pattern) {
             if (pattern.matcher(object).matches()) {
-                return true;
+                return ValidationResult.valid();
             }
-            throw new RegExpValidationException(object, annotation.value(), field);
+            return ValidationResult.invalid(new RegExpValidationException(object, pattern.pattern(), field));
         }
     }
 }
@@ -22,6 +22,8 @@ package me.machinemaker.lectern.annotations.validations;
 import me.machinemaker.lectern.exceptions.validations.SizeValidationException;
 import me.machinemaker.lectern.exceptions.validations.ValidationException;
 import me.machinemaker.lectern.validations.FieldValueValidator;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -51,17 +53,31 @@ public @interface Size {
 
         @Override
         public boolean validate(Object object, Field field, Size annotation) throws ValidationException {
-            final SizeValidationException exception = new SizeValidationException(String.format("Failed to meet the size constraints, min: %d max: %d", annotation.min(), annotation.max()), object, field);
+            final ValidationResult result = checkSize(object, field, annotation.min(), annotation.max());
+            if (!result.isValid()) {
+                throw result.error();
+            }
+            return true;
+        }
+
+        @Override
+        protected ValueValidator<Object> prepare(Field field, Size annotation) {
+            final long min = annotation.min();
+            final long max = annotation.max();
+            return ValueValidator.of(object -> checkSize(object, field, min, max));
+        }
+
+        private static ValidationResult checkSize(Object object, Field field, long min, long max) {
             if (object instanceof CharSequence str) {
-                if (str.length() > annotation.min() && str.length() < annotation.max()) {
-                    return true;
+                if (str.length() > min && str.length() < max) {
+                    return ValidationResult.valid();
                 }
             } else if (object instanceof Collection<?> collection) {
-                if (collection.size() > annotation.min() && collection.size() < annotation.max()) {
-                    return true;
+                if (collection.size() > min && collection.size() < max) {
+                    return ValidationResult.valid();
                 }
             }
-            throw exception;
+            return ValidationResult.invalid(new SizeValidationException(String.format("Failed to meet the size constraints, min: %d max: %d", min, max), object, field));
         }
     }
 }
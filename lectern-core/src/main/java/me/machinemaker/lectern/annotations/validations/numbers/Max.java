@@ -23,6 +23,8 @@ import me.machinemaker.lectern.annotations.validations.Validation;
 import me.machinemaker.lectern.exceptions.validations.SizeValidationException;
 import me.machinemaker.lectern.exceptions.validations.ValidationException;
 import me.machinemaker.lectern.validations.FieldValueValidator;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -43,10 +45,24 @@ public @interface Max {
 
         @Override
         public boolean validate(Number object, Field field, Max annotation) throws ValidationException {
-            if (object.longValue() > annotation.value()) {
-                throw new SizeValidationException(object + " is greater than the maximum value " + annotation.value(), object, field);
+            final ValidationResult result = checkMax(object, field, annotation.value());
+            if (!result.isValid()) {
+                throw result.error();
             }
             return true;
         }
+
+        @Override
+        protected ValueValidator<Number> prepare(Field field, Max annotation) {
+            final long max = annotation.value();
+            return ValueValidator.of(object -> checkMax(object, field, max));
+        }
+
+        private static ValidationResult checkMax(Number object, Field field, long max) {
+            if (object.longValue() > max) {
+                return ValidationResult.invalid(new SizeValidationException(object + " is greater than the maximum value " + max, object, field));
+            }
+            return ValidationResult.valid();
+        }
     }
 }
@@ -23,6 +23,8 @@ import me.machinemaker.lectern.annotations.validations.Validation;
 import me.machinemaker.lectern.exceptions.validations.SizeValidationException;
 import me.machinemaker.lectern.exceptions.validations.ValidationException;
 import me.machinemaker.lectern.validations.FieldValueValidator;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -43,10 +45,24 @@ public @interface Min {
 
         @Override
         public boolean validate(Number object, Field field, Min annotation) throws ValidationException {
-            if (object.longValue() < annotation.value()) {
-                throw new SizeValidationException(object + " is lower than the minimum value " + annotation.value(), object, field);
+            final ValidationResult result = checkMin(object, field, annotation.value());
+            if (!result.isValid()) {
+                throw result.error();
             }
             return true;
         }
+
+        @Override
+        protected ValueValidator<Number> prepare(Field field, Min annotation) {
+            final long min = annotation.value();
+            return ValueValidator.of(object -> checkMin(object, field, min));
+        }
+
+        private static ValidationResult checkMin(Number object, Field field, long min) {
+            if (object.longValue() < min) {
+                return ValidationResult.invalid(new SizeValidationException(object + " is lower than the minimum value " + min, object, field));
+            }
+            return ValidationResult.valid();
+        }
     }
 }
@@ -24,6 +24,8 @@ import me.machinemaker.lectern.annotations.validations.Validation;
 import me.machinemaker.lectern.exceptions.validations.SizeValidationException;
 import me.machinemaker.lectern.exceptions.validations.ValidationException;
 import me.machinemaker.lectern.validations.FieldValueValidator;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
 
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
@@ -42,10 +44,23 @@ public @interface Positive {
 
         @Override
         public boolean validate(Number object, Field field, Positive annotation) throws ValidationException {
+            final ValidationResult result = checkPositive(object, field);
+            if (!result.isValid()) {
+                throw result.error();
+            }
+            return true;
+        }
+
+        @Override
+        protected ValueValidator<Number> prepare(Field field, Positive annotation) {
+            return ValueValidator.of(object -> checkPositive(object, field));
+        }
+
+        private static ValidationResult checkPositive(Number object, Field field) {
             if (object.longValue() > 0) {
-                return true;
+                return ValidationResult.valid();
             }
-            throw new SizeValidationException(object + " is not positive", object, field);
+            return ValidationResult.invalid(new SizeValidationException(object + " is not positive", object, field));
         }
     }
 }
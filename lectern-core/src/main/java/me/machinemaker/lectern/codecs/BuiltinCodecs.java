@@ -0,0 +1,348 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.codecs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.ser.impl.UnsupportedTypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import me.machinemaker.lectern.contexts.LoadContext;
+import me.machinemaker.lectern.contexts.SerializeContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * The codecs of the {@link CodecRegistry#defaults() default registry}.
+ * <p>
+ * Codecs only handle the tokens Jackson would read without any coercion,
+ * and hand everything else to the Jackson reader of the type, so values
+ * are read the same way with and without them.
+ */
+final class BuiltinCodecs {
+
+    private static final Map<Class<?>, ValueCodec<?>> SCALARS = new HashMap<>();
+
+    static {
+        scalar(String.class, (parser, token) -> token == JsonToken.VALUE_STRING ? parser.getText() : null, JsonGenerator::writeString);
+        scalar(Boolean.class, boolean.class, (parser, token) -> token == JsonToken.VALUE_TRUE ? Boolean.TRUE : token == JsonToken.VALUE_FALSE ? Boolean.FALSE : null, (generator, value) -> generator.writeBoolean(value));
+        scalar(Character.class, char.class, (parser, token) -> token == JsonToken.VALUE_STRING && parser.getTextLength() == 1 ? parser.getText().charAt(0) : null, (generator, value) -> generator.writeString(String.valueOf(value.charValue())));
+        scalar(Byte.class, byte.class, (parser, token) -> isInt(parser, token) && parser.getIntValue() == (byte) parser.getIntValue() ? (byte) parser.getIntValue() : null, (generator, value) -> generator.writeNumber(value.intValue()));
+        scalar(Short.class, short.class, (parser, token) -> isInt(parser, token) && parser.getIntValue() == (short) parser.getIntValue() ? (short) parser.getIntValue() : null, (generator, value) -> generator.writeNumber(value.shortValue()));
+        scalar(Integer.class, int.class, (parser, token) -> isInt(parser, token) ? parser.getIntValue() : null, (generator, value) -> generator.writeNumber(value.intValue()));
+        scalar(Long.class, long.class, (parser, token) -> token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER ? parser.getLongValue() : null, (generator, value) -> generator.writeNumber(value.longValue()));
+        scalar(Float.class, float.class, (parser, token) -> token.isNumeric() ? parser.getFloatValue() : null, (generator, value) -> generator.writeNumber(value.floatValue()));
+        scalar(Double.class, double.class, (parser, token) -> token.isNumeric() ? parser.getDoubleValue() : null, (generator, value) -> generator.writeNumber(value.doubleValue()));
+        SCALARS.put(Duration.class, new DurationCodec());
+    }
+
+    private BuiltinCodecs() {
+    }
+
+    static @Nullable ValueCodec<?> create(@NotNull JavaType type, @NotNull CodecRegistry registry) {
+        final Class<?> rawType = type.getRawClass();
+        final ValueCodec<?> scalar = SCALARS.get(rawType);
+        if (scalar != null) {
+            return scalar;
+        } else if (type.isEnumType()) {
+            return isPlain(rawType) ? new EnumCodec<>(type) : null;
+        } else if (type.isCollectionLikeType()) {
+            final Supplier<Collection<Object>> factory;
+            if (rawType == List.class || rawType == Collection.class || rawType == ArrayList.class) {
+                factory = ArrayList::new;
+            } else if (rawType == Set.class || rawType == HashSet.class) {
+                factory = HashSet::new;
+            } else if (rawType == LinkedHashSet.class) {
+                factory = LinkedHashSet::new;
+            } else {
+                return null;
+            }
+            final ValueCodec<Object> elements = registry.find(type.getContentType());
+            return elements != null ? new CollectionCodec(type, factory, elements) : null;
+        } else if (type.isMapLikeType() && type.getKeyType().hasRawClass(String.class)) {
+            final Supplier<Map<String, Object>> factory;
+            if (rawType == Map.class || rawType == LinkedHashMap.class) {
+                factory = LinkedHashMap::new;
+            } else if (rawType == HashMap.class) {
+                factory = HashMap::new;
+            } else {
+                return null;
+            }
+            final ValueCodec<Object> values = registry.find(type.getContentType());
+            return values != null ? new MapCodec(type, factory, values) : null;
+        }
+        return null;
+    }
+
+    private static boolean isInt(@NotNull JsonParser parser, @NotNull JsonToken token) throws IOException {
+        return token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT;
+    }
+
+    private static @Nullable Duration readDuration(@NotNull JsonParser parser, @NotNull JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            final String text = parser.getText().trim();
+            try {
+                return Duration.parse(text);
+            } catch (DateTimeParseException e) {
+                throw InvalidFormatException.from(parser, "Could not read a duration from " + text, text, Duration.class);
+            }
+        } else if (token == JsonToken.VALUE_NUMBER_INT) {
+            return Duration.ofSeconds(parser.getLongValue());
+        } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            final BigDecimal seconds = parser.getDecimalValue();
+            return Duration.ofSeconds(seconds.longValue(), seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a mapper has its own serializer for a type, as opposed
+     * to writing it as a bean or rejecting it, or has a mix-in for it.
+     */
+    private static boolean hasOwnSerializer(@NotNull ObjectMapper mapper, @NotNull Class<?> type) throws JsonMappingException {
+        final JsonSerializer<Object> serializer = mapper.getSerializerProviderInstance().findValueSerializer(type);
+        return !(serializer instanceof BeanSerializerBase || serializer instanceof UnsupportedTypeSerializer) || mapper.findMixInClassFor(type) != null;
+    }
+
+    /**
+     * Checks if an enum is written by its constant names, which
+     * is the case unless it has any Jackson annotations.
+     */
+    private static boolean isPlain(@NotNull Class<?> enumType) {
+        return Stream.of(Stream.<AnnotatedElement>of(enumType), Stream.of(enumType.getDeclaredFields()), Stream.of(enumType.getDeclaredMethods()))
+                .flatMap(elements -> elements)
+                .flatMap(element -> Stream.of(element.getDeclaredAnnotations()))
+                .map(Annotation::annotationType)
+                .noneMatch(annotation -> annotation.getName().startsWith("com.fasterxml.jackson."));
+    }
+
+    private static <T> void scalar(@NotNull Class<T> type, @NotNull TokenReader<T> reader, @NotNull TokenWriter<T> writer) {
+        SCALARS.put(type, new ScalarCodec<>(TypeFactory.defaultInstance().constructType(type), reader, writer));
+    }
+
+    private static <T> void scalar(@NotNull Class<T> type, @NotNull Class<?> primitiveType, @NotNull TokenReader<T> reader, @NotNull TokenWriter<T> writer) {
+        scalar(type, reader, writer);
+        // separate codec, so the Jackson fallback reads null as the primitive default
+        SCALARS.put(primitiveType, new ScalarCodec<>(TypeFactory.defaultInstance().constructType(primitiveType), reader, writer));
+    }
+
+    @FunctionalInterface
+    private interface TokenReader<T> {
+
+        /**
+         * Reads the current token, or returns null if the token
+         * has to be read by Jackson.
+         */
+        @Nullable T read(@NotNull JsonParser parser, @NotNull JsonToken token) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface TokenWriter<T> {
+
+        void write(@NotNull JsonGenerator generator, @NotNull T value) throws IOException;
+    }
+
+    private record ScalarCodec<T>(@NotNull JavaType type, @NotNull TokenReader<T> reader, @NotNull TokenWriter<T> writer) implements ValueCodec<T> {
+
+        @Override
+        public @Nullable T read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+            final T value = this.reader.read(parser, parser.currentToken());
+            return value != null ? value : context.reader(this.type).readValue(parser);
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull T value, @NotNull SerializeContext context) throws IOException {
+            this.writer.write(generator, value);
+        }
+    }
+
+    /**
+     * Reads and writes durations as ISO-8601 strings, unless the mapper has
+     * its own serializer for them (usually from {@code JavaTimeModule}), in
+     * which case the mapper reads and writes them.
+     */
+    private static final class DurationCodec implements ValueCodec<Duration> {
+
+        private static final JavaType TYPE = TypeFactory.defaultInstance().constructType(Duration.class);
+
+        // mappers are usually shared, so the last one checked is almost always the next one
+        private volatile @Nullable MapperCheck last;
+
+        @Override
+        public @Nullable Duration read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+            if (!this.defersTo(context.mapper())) {
+                final Duration value = readDuration(parser, parser.currentToken());
+                if (value != null) {
+                    return value;
+                }
+            }
+            return context.reader(TYPE).readValue(parser);
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Duration value, @NotNull SerializeContext context) throws IOException {
+            if (this.defersTo(context.mapper())) {
+                context.writer(TYPE).writeValue(generator, value);
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+
+        private boolean defersTo(@NotNull ObjectMapper mapper) throws JsonMappingException {
+            MapperCheck check = this.last;
+            if (check == null || check.mapper() != mapper) {
+                check = new MapperCheck(mapper, hasOwnSerializer(mapper, Duration.class));
+                this.last = check;
+            }
+            return check.ownSerializer();
+        }
+
+        private record MapperCheck(@NotNull ObjectMapper mapper, boolean ownSerializer) {
+        }
+    }
+
+    private static final class EnumCodec<E extends Enum<E>> implements ValueCodec<E> {
+
+        private final JavaType type;
+        private final Map<String, E> constants = new HashMap<>();
+
+        @SuppressWarnings("unchecked")
+        EnumCodec(@NotNull JavaType type) {
+            this.type = type;
+            for (E constant : ((Class<E>) type.getRawClass()).getEnumConstants()) {
+                this.constants.put(constant.name(), constant);
+            }
+        }
+
+        @Override
+        public @Nullable E read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+            final ObjectMapper mapper = context.mapper();
+            if (parser.currentToken() == JsonToken.VALUE_STRING && !mapper.isEnabled(DeserializationFeature.READ_ENUMS_USING_TO_STRING) && mapper.findMixInClassFor(this.type.getRawClass()) == null) {
+                final E constant = this.constants.get(parser.getText());
+                if (constant != null) {
+                    return constant;
+                }
+            }
+            return context.reader(this.type).readValue(parser);
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull E value, @NotNull SerializeContext context) throws IOException {
+            final ObjectMapper mapper = context.mapper();
+            if (mapper.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING) || mapper.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX) || mapper.findMixInClassFor(this.type.getRawClass()) != null) {
+                context.writer(this.type).writeValue(generator, value);
+            } else {
+                generator.writeString(value.name());
+            }
+        }
+    }
+
+    private record CollectionCodec(@NotNull JavaType type, @NotNull Supplier<Collection<Object>> factory, @NotNull ValueCodec<Object> elements) implements ValueCodec<Collection<Object>> {
+
+        @Override
+        public @Nullable Collection<Object> read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                return context.reader(this.type).readValue(parser);
+            }
+            final Collection<Object> collection = this.factory.get();
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                collection.add(token == JsonToken.VALUE_NULL ? null : this.elements.read(parser, context));
+            }
+            return collection;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Collection<Object> value, @NotNull SerializeContext context) throws IOException {
+            generator.writeStartArray();
+            for (Object element : value) {
+                if (element == null) {
+                    generator.writeNull();
+                } else {
+                    this.elements.write(generator, element, context);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private record MapCodec(@NotNull JavaType type, @NotNull Supplier<Map<String, Object>> factory, @NotNull ValueCodec<Object> values) implements ValueCodec<Map<String, Object>> {
+
+        @Override
+        public @Nullable Map<String, Object> read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return context.reader(this.type).readValue(parser);
+            }
+            final Map<String, Object> map = this.factory.get();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String key = parser.getCurrentName();
+                map.put(key, parser.nextToken() == JsonToken.VALUE_NULL ? null : this.values.read(parser, context));
+            }
+            return map;
+        }
+
+        @Override
+        public void write(@NotNull JsonGenerator generator, @NotNull Map<String, Object> value, @NotNull SerializeContext context) throws IOException {
+            if (context.mapper().isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)) {
+                context.writer(this.type).writeValue(generator, value);
+                return;
+            }
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> entry : value.entrySet()) {
+                if (entry.getKey() == null) {
+                    throw JsonMappingException.from(generator, "Null key for a Map not allowed in JSON");
+                }
+                generator.writeFieldName(entry.getKey());
+                if (entry.getValue() == null) {
+                    generator.writeNull();
+                } else {
+                    this.values.write(generator, entry.getValue(), context);
+                }
+            }
+            generator.writeEndObject();
+        }
+    }
+}
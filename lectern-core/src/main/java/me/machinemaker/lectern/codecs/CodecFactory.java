@@ -0,0 +1,40 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.codecs;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Creates the codecs of a {@link CodecRegistry}.
+ */
+@FunctionalInterface
+public interface CodecFactory {
+
+    /**
+     * Creates a codec for a type.
+     *
+     * @param type the type
+     * @param registry the registry to look up codecs of element types in
+     * @return the codec, or null if this factory doesn't support the type
+     */
+    @Nullable ValueCodec<?> create(@NotNull JavaType type, @NotNull CodecRegistry registry);
+}
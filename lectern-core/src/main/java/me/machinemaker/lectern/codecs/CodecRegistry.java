@@ -0,0 +1,115 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.codecs;
+
+import com.fasterxml.jackson.databind.JavaType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the {@link ValueCodec} of a type. Values of types without
+ * a codec are read and written by Jackson databind.
+ * <p>
+ * The {@link #defaults() default registry} has codecs for primitives
+ * and their boxes, {@link String}, enums, {@link java.time.Duration}
+ * and {@link List}s, {@link java.util.Set}s and {@link Map}s of those.
+ */
+public final class CodecRegistry {
+
+    private static final CodecRegistry EMPTY = new CodecRegistry(List.of());
+    private static final CodecRegistry DEFAULTS = new CodecRegistry(List.of(BuiltinCodecs::create));
+
+    private final List<CodecFactory> factories;
+    private final Map<JavaType, Optional<ValueCodec<?>>> codecs = new ConcurrentHashMap<>();
+
+    private CodecRegistry(@NotNull List<CodecFactory> factories) {
+        this.factories = factories;
+    }
+
+    /**
+     * Gets the registry with the built-in codecs.
+     *
+     * @return the default registry
+     */
+    public static @NotNull CodecRegistry defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Gets a registry without any codecs, so every value
+     * is read and written by Jackson databind.
+     *
+     * @return the empty registry
+     */
+    public static @NotNull CodecRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a registry which asks a factory for a codec
+     * before the factories of this registry.
+     *
+     * @param factory the factory
+     * @return the new registry
+     */
+    public @NotNull CodecRegistry with(@NotNull CodecFactory factory) {
+        final List<CodecFactory> factories = new ArrayList<>(this.factories.size() + 1);
+        factories.add(factory);
+        factories.addAll(this.factories);
+        return new CodecRegistry(List.copyOf(factories));
+    }
+
+    /**
+     * Finds the codec of a type. Codecs are created once per type.
+     *
+     * @param type the type
+     * @param <T> the value type
+     * @return the codec, or null if the type has none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable ValueCodec<T> find(@NotNull JavaType type) {
+        Optional<ValueCodec<?>> codec = this.codecs.get(type);
+        if (codec == null) {
+            // not computeIfAbsent, factories look up the codecs of element types while creating theirs
+            codec = Optional.ofNullable(this.create(type));
+            final Optional<ValueCodec<?>> existing = this.codecs.putIfAbsent(type, codec);
+            if (existing != null) {
+                codec = existing;
+            }
+        }
+        return (ValueCodec<T>) codec.orElse(null);
+    }
+
+    private @Nullable ValueCodec<?> create(@NotNull JavaType type) {
+        for (CodecFactory factory : this.factories) {
+            final ValueCodec<?> codec = factory.create(type, this);
+            if (codec != null) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
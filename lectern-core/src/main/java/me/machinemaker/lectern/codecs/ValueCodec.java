@@ -0,0 +1,59 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.codecs;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import me.machinemaker.lectern.contexts.LoadContext;
+import me.machinemaker.lectern.contexts.SerializeContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes values of one type directly from parser and
+ * generator tokens, without going through Jackson databind.
+ *
+ * @param <T> the value type
+ * @see CodecRegistry
+ */
+public interface ValueCodec<T> {
+
+    /**
+     * Reads a value starting at the current token of the parser.
+     *
+     * @param parser the parser positioned at the value
+     * @param context the load context
+     * @return the read value
+     * @throws IOException if the value could not be read
+     */
+    @Nullable T read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException;
+
+    /**
+     * Writes a value.
+     *
+     * @param generator the generator to write to
+     * @param value the value to write
+     * @param context the serialize context
+     * @throws IOException if the value could not be written
+     */
+    void write(@NotNull JsonGenerator generator, @NotNull T value, @NotNull SerializeContext context) throws IOException;
+}
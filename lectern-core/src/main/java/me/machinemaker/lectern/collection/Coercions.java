@@ -0,0 +1,166 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Converts node values to the type of the field they are copied to.
+ * <p>
+ * Numbers are widened freely and narrowed only if the value fits the
+ * target type exactly, so {@code 5.0} can be set on an {@code int} field
+ * but {@code 5.5} and {@code 300} can't be set on a {@code byte} field.
+ */
+public final class Coercions {
+
+    /**
+     * Returned by a coercion if the value can't be converted.
+     */
+    public static final Object INVALID = new Object();
+
+    private static final BigDecimal MIN_LONG = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal MAX_LONG = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final double TWO_POW_63 = 0x1p63;
+
+    private static final Map<Class<?>, Function<Number, Object>> NUMERIC = Map.of(
+            Byte.class, number -> narrow(number, Byte.MIN_VALUE, Byte.MAX_VALUE) instanceof Long l ? (Object) l.byteValue() : INVALID,
+            Short.class, number -> narrow(number, Short.MIN_VALUE, Short.MAX_VALUE) instanceof Long l ? (Object) l.shortValue() : INVALID,
+            Integer.class, number -> narrow(number, Integer.MIN_VALUE, Integer.MAX_VALUE) instanceof Long l ? (Object) l.intValue() : INVALID,
+            Long.class, number -> narrow(number, Long.MIN_VALUE, Long.MAX_VALUE),
+            Float.class, Coercions::toFloat,
+            Double.class, Coercions::toDouble,
+            BigInteger.class, Coercions::toBigInteger,
+            BigDecimal.class, Coercions::toBigDecimal
+    );
+
+    private static final Map<Class<?>, Class<?>> BOXES = Map.of(
+            boolean.class, Boolean.class,
+            char.class, Character.class,
+            byte.class, Byte.class,
+            short.class, Short.class,
+            int.class, Integer.class,
+            long.class, Long.class,
+            float.class, Float.class,
+            double.class, Double.class
+    );
+
+    private Coercions() {
+    }
+
+    /**
+     * Creates the coercion for a field type. The returned function gives
+     * back a value which can be set on a field of that type, or
+     * {@link #INVALID} if there is none.
+     *
+     * @param type the field type
+     * @return the coercion
+     */
+    public static @NotNull Function<@Nullable Object, @Nullable Object> forType(@NotNull Class<?> type) {
+        final boolean primitive = type.isPrimitive();
+        final Class<?> boxed = primitive ? BOXES.get(type) : type;
+        final Function<Number, Object> numeric = NUMERIC.get(boxed);
+        if (numeric == null) {
+            return value -> value == null ? (primitive ? INVALID : null) : boxed.isInstance(value) ? value : INVALID;
+        }
+        return value -> {
+            if (value == null) {
+                return primitive ? INVALID : null;
+            } else if (boxed.isInstance(value)) {
+                return value;
+            }
+            return value instanceof Number number ? numeric.apply(number) : INVALID;
+        };
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Integer || number instanceof Long || number instanceof Short || number instanceof Byte;
+    }
+
+    private static Object narrow(Number number, long min, long max) {
+        final long value;
+        if (isIntegral(number)) {
+            value = number.longValue();
+        } else if (number instanceof Double || number instanceof Float) {
+            final double d = number.doubleValue();
+            if (d != Math.rint(d) || d < -TWO_POW_63 || d >= TWO_POW_63) {
+                return INVALID;
+            }
+            value = (long) d;
+        } else if (number instanceof BigInteger bigInteger) {
+            if (bigInteger.bitLength() >= Long.SIZE) {
+                return INVALID;
+            }
+            value = bigInteger.longValue();
+        } else if (number instanceof BigDecimal bigDecimal) {
+            if (bigDecimal.compareTo(MIN_LONG) < 0 || bigDecimal.compareTo(MAX_LONG) > 0 || bigDecimal.signum() != 0 && bigDecimal.stripTrailingZeros().scale() > 0) {
+                return INVALID;
+            }
+            value = bigDecimal.longValue();
+        } else {
+            return INVALID;
+        }
+        return value < min || value > max ? INVALID : value;
+    }
+
+    private static Object toFloat(Number number) {
+        final float value = number.floatValue();
+        final double exact = number.doubleValue();
+        return (double) value == exact || Double.isNaN(exact) ? value : INVALID;
+    }
+
+    private static Object toDouble(Number number) {
+        final double value = number.doubleValue();
+        return Double.isInfinite(value) && !(number instanceof Float) ? INVALID : value;
+    }
+
+    private static Object toBigInteger(Number number) {
+        if (isIntegral(number)) {
+            return BigInteger.valueOf(number.longValue());
+        }
+        final Object decimal = toBigDecimal(number);
+        if (decimal instanceof BigDecimal bigDecimal && (bigDecimal.signum() == 0 || bigDecimal.stripTrailingZeros().scale() <= 0)) {
+            return bigDecimal.toBigInteger();
+        }
+        return INVALID;
+    }
+
+    private static Object toBigDecimal(Number number) {
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        } else if (number instanceof BigDecimal) {
+            return number;
+        } else if (number instanceof BigInteger bigInteger) {
+            return new BigDecimal(bigInteger);
+        } else if (number instanceof Float || number instanceof Double) {
+            final double value = number.doubleValue();
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return INVALID;
+            }
+            return number instanceof Float ? new BigDecimal(number.toString()) : BigDecimal.valueOf(value);
+        }
+        return INVALID;
+    }
+}
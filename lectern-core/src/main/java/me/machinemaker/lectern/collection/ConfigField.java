@@ -24,15 +24,21 @@ import me.machinemaker.lectern.validations.ValueValidator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Type;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 public abstract class ConfigField {
 
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
     private final Field field;
     private final String description;
     private final String key;
@@ -43,24 +49,44 @@ public abstract class ConfigField {
         this.description = description;
         this.key = key;
         this.meta = meta;
+        // plain field access, the JDK's field accessors are faster than a method handle per field
+        // once a config has more than a few fields, as the handles can't be inlined as constants
+        if (!field.trySetAccessible()) {
+            throw new IllegalStateException("Couldn't access " + field);
+        }
     }
 
     public @Nullable Object get(@NotNull Object configInstance) {
         try {
             return this.field.get(configInstance);
         } catch (IllegalAccessException e) {
-            throw new IllegalStateException("Couldn't get the value of " + this.field + " from " + configInstance, e);
+            throw this.getFailed(configInstance, e);
         }
     }
 
+    /**
+     * Sets the value of this field.
+     *
+     * @param configInstance the instance to set the field on
+     * @param value the new value
+     * @throws IllegalArgumentException if the value cannot be assigned to the field
+     */
     public void set(@NotNull Object configInstance, @Nullable Object value) {
         try {
             this.field.set(configInstance, value);
         } catch (IllegalAccessException e) {
-            throw new IllegalStateException("Couldn't set the value of " + this.field + " on " + configInstance, e);
+            throw this.setFailed(configInstance, e);
         }
     }
 
+    final @NotNull IllegalStateException getFailed(@NotNull Object configInstance, @NotNull IllegalAccessException e) {
+        return new IllegalStateException("Couldn't get the value of " + this.field + " from " + configInstance, e);
+    }
+
+    final @NotNull IllegalStateException setFailed(@NotNull Object configInstance, @NotNull IllegalAccessException e) {
+        return new IllegalStateException("Couldn't set the value of " + this.field + " on " + configInstance, e);
+    }
+
     public abstract @NotNull Type type();
 
     public @NotNull Field field() {
@@ -81,7 +107,10 @@ public abstract class ConfigField {
 
     public static class Section extends ConfigField {
 
+        private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
         private final Class<?> sectionType;
+        private MethodHandle constructor;
 
         public Section(@NotNull Field field, @Nullable String description, @NotNull String key, @NotNull Class<?> sectionType, @NotNull Map<String, Object> meta) {
             super(field, description, key, meta);
@@ -97,14 +126,50 @@ public abstract class ConfigField {
             return sectionType;
         }
 
+        /**
+         * Creates a new instance of the section type.
+         *
+         * @return the new instance
+         */
         public @NotNull Object getOrCreateInstance() {
             try {
-                var ctor = sectionType.getDeclaredConstructor();
-                ctor.trySetAccessible();
-                return ctor.newInstance();
-            } catch (InvocationTargetException | InstantiationException | IllegalAccessException | NoSuchMethodException e) {
-                throw new IllegalStateException("Could not create an instance of " + sectionType.getName(), e);
+                return (Object) this.constructor().invokeExact();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Could not create an instance of " + this.sectionType.getName(), e);
+            }
+        }
+
+        /**
+         * Gets the section instance of a config or section instance,
+         * creating and setting a new one if the field is null.
+         *
+         * @param configInstance the instance containing this section
+         * @return the existing or new section instance
+         */
+        public @NotNull Object getOrCreateInstance(@NotNull Object configInstance) {
+            Object instance = this.get(configInstance);
+            if (instance == null) {
+                instance = this.getOrCreateInstance();
+                this.set(configInstance, instance);
+            }
+            return instance;
+        }
+
+        private @NotNull MethodHandle constructor() {
+            MethodHandle constructor = this.constructor;
+            if (constructor == null) {
+                try {
+                    final Constructor<?> ctor = this.sectionType.getDeclaredConstructor();
+                    ctor.trySetAccessible();
+                    constructor = LOOKUP.unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+                } catch (NoSuchMethodException | IllegalAccessException e) {
+                    throw new IllegalStateException("Could not create an instance of " + this.sectionType.getName(), e);
+                }
+                this.constructor = constructor;
             }
+            return constructor;
         }
     }
 
@@ -112,11 +177,101 @@ public abstract class ConfigField {
 
         private final JavaType type;
         private final List<ValueValidator<?>> validators;
+        private final Function<@Nullable Object, @Nullable Object> coercion;
 
         public Value(@NotNull Field field, @Nullable String description, @NotNull String key, @NotNull JavaType type, List<ValueValidator<?>> validators, @NotNull Map<String, Object> meta) {
             super(field, description, key, meta);
             this.type = type;
             this.validators = Collections.unmodifiableList(validators);
+            this.coercion = Coercions.forType(type.getRawClass());
+        }
+
+        /**
+         * Sets the value of this field, converting numbers to the field type.
+         *
+         * @param configInstance the instance holding the field
+         * @param value the value to set
+         * @return false if the value can't be converted to the field type
+         * @see Coercions
+         */
+        public boolean trySet(@NotNull Object configInstance, @Nullable Object value) {
+            final Object converted = this.coercion.apply(value);
+            if (converted == Coercions.INVALID) {
+                return false;
+            }
+            this.set(configInstance, converted);
+            return true;
+        }
+
+        public int getInt(@NotNull Object configInstance) {
+            try {
+                return this.primitiveField(int.class).getInt(configInstance);
+            } catch (IllegalAccessException e) {
+                throw this.getFailed(configInstance, e);
+            }
+        }
+
+        public void setInt(@NotNull Object configInstance, int value) {
+            try {
+                this.primitiveField(int.class).setInt(configInstance, value);
+            } catch (IllegalAccessException e) {
+                throw this.setFailed(configInstance, e);
+            }
+        }
+
+        public long getLong(@NotNull Object configInstance) {
+            try {
+                return this.primitiveField(long.class).getLong(configInstance);
+            } catch (IllegalAccessException e) {
+                throw this.getFailed(configInstance, e);
+            }
+        }
+
+        public void setLong(@NotNull Object configInstance, long value) {
+            try {
+                this.primitiveField(long.class).setLong(configInstance, value);
+            } catch (IllegalAccessException e) {
+                throw this.setFailed(configInstance, e);
+            }
+        }
+
+        public double getDouble(@NotNull Object configInstance) {
+            try {
+                return this.primitiveField(double.class).getDouble(configInstance);
+            } catch (IllegalAccessException e) {
+                throw this.getFailed(configInstance, e);
+            }
+        }
+
+        public void setDouble(@NotNull Object configInstance, double value) {
+            try {
+                this.primitiveField(double.class).setDouble(configInstance, value);
+            } catch (IllegalAccessException e) {
+                throw this.setFailed(configInstance, e);
+            }
+        }
+
+        public boolean getBoolean(@NotNull Object configInstance) {
+            try {
+                return this.primitiveField(boolean.class).getBoolean(configInstance);
+            } catch (IllegalAccessException e) {
+                throw this.getFailed(configInstance, e);
+            }
+        }
+
+        public void setBoolean(@NotNull Object configInstance, boolean value) {
+            try {
+                this.primitiveField(boolean.class).setBoolean(configInstance, value);
+            } catch (IllegalAccessException e) {
+                throw this.setFailed(configInstance, e);
+            }
+        }
+
+        private @NotNull Field primitiveField(@NotNull Class<?> primitiveType) {
+            if (this.field().getType() != primitiveType) {
+                throw new IllegalStateException(this.field() + " is not a " + primitiveType.getName() + " field");
+            }
+            return this.field();
         }
 
         @Override
@@ -28,6 +28,7 @@ import me.machinemaker.lectern.annotations.validations.Validation;
 import me.machinemaker.lectern.utils.StringUtils;
 import me.machinemaker.lectern.validations.FieldValueValidator;
 import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
@@ -43,6 +44,13 @@ import java.util.Set;
 
 public final class FieldCollector {
 
+    private static final ClassValue<List<ConfigField>> FIELDS = new ClassValue<>() {
+        @Override
+        protected List<ConfigField> computeValue(Class<?> type) {
+            return new FieldCollector(type).collectFields();
+        }
+    };
+
     private final Class<?> configClass;
     private final Set<Class<?>> subClasses = new HashSet<>();
 
@@ -54,6 +62,17 @@ public final class FieldCollector {
         }
     }
 
+    /**
+     * Gets the config fields for a class. The fields are collected
+     * once per class and shared between all instances and reloads.
+     *
+     * @param configClass the config or section class
+     * @return an unmodifiable list of config fields
+     */
+    public static @NotNull List<ConfigField> fields(@NotNull Class<?> configClass) {
+        return FIELDS.get(configClass);
+    }
+
     public List<ConfigField> collectFields() {
         List<ConfigField> configFields = new ArrayList<>();
         for (Field field : configClass.getDeclaredFields()) {
@@ -72,7 +91,7 @@ public final class FieldCollector {
                     throw new IllegalStateException("Configuration sections must be annotated with " + ConfigurationSection.class.getName());
                 }
                 ConfigurationSection section = field.getType().getAnnotation(ConfigurationSection.class);
-                configFields.add(new ConfigField.Section(field, section.description(), section.path(), field.getType(), meta));
+                configFields.add(new ConfigField.Section(field, section.description(), section.path(), field.getType(), Collections.unmodifiableMap(meta)));
             } else {
                 key = field.isAnnotationPresent(Key.class) ? field.getAnnotation(Key.class).value() : StringUtils.camelCaseToHyphenSnakeCase(field.getName());
                 description = field.isAnnotationPresent(Description.class) ? field.getAnnotation(Description.class).value() : null;
@@ -96,7 +115,7 @@ public final class FieldCollector {
                         key,
                         TypeFactory.defaultInstance().constructType(field.getGenericType()),
                         validators,
-                        meta));
+                        Collections.unmodifiableMap(meta)));
             }
         }
         return Collections.unmodifiableList(configFields);
@@ -19,19 +19,32 @@
  */
 package me.machinemaker.lectern.contexts;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import me.machinemaker.lectern.ConfigurationNode;
+import me.machinemaker.lectern.codecs.CodecRegistry;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public final class LoadContext extends ConfigContext {
 
     private final InvalidKeyHandler invalidKeyHandler;
     private final ObjectMapper mapper;
+    private final CodecRegistry codecs;
+    private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
 
     public LoadContext(@NotNull ConfigurationNode root, @NotNull InvalidKeyHandler invalidKeyHandler, @NotNull ObjectMapper mapper) {
+        this(root, invalidKeyHandler, mapper, CodecRegistry.defaults());
+    }
+
+    public LoadContext(@NotNull ConfigurationNode root, @NotNull InvalidKeyHandler invalidKeyHandler, @NotNull ObjectMapper mapper, @NotNull CodecRegistry codecs) {
         super(root);
         this.invalidKeyHandler = invalidKeyHandler;
         this.mapper = mapper;
+        this.codecs = codecs;
     }
 
     public @NotNull InvalidKeyHandler invalidKeyHandler() {
@@ -41,4 +54,19 @@ public final class LoadContext extends ConfigContext {
     public @NotNull ObjectMapper mapper() {
         return mapper;
     }
+
+    public @NotNull CodecRegistry codecs() {
+        return this.codecs;
+    }
+
+    /**
+     * Gets a reader for a type. Readers are created once per
+     * type and reused for every load.
+     *
+     * @param type the type to read
+     * @return the reader
+     */
+    public @NotNull ObjectReader reader(@NotNull JavaType type) {
+        return this.readers.computeIfAbsent(type, this.mapper::readerFor);
+    }
 }
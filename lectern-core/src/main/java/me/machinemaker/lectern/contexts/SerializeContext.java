@@ -19,19 +19,37 @@
  */
 package me.machinemaker.lectern.contexts;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import me.machinemaker.lectern.ConfigurationNode;
+import me.machinemaker.lectern.codecs.CodecRegistry;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class SerializeContext extends ConfigContext {
 
     private final ObjectMapper mapper;
+    private final CodecRegistry codecs;
+    private final ObjectWriter writer;
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
     private final char commentChar;
     private final int indentSize;
 
     public SerializeContext(@NotNull ConfigurationNode root, @NotNull ObjectMapper mapper, char commentChar, int indentSize) {
+        this(root, mapper, CodecRegistry.defaults(), commentChar, indentSize);
+    }
+
+    public SerializeContext(@NotNull ConfigurationNode root, @NotNull ObjectMapper mapper, @NotNull CodecRegistry codecs, char commentChar, int indentSize) {
         super(root);
         this.mapper = mapper;
+        this.codecs = codecs;
+        this.writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
         this.commentChar = commentChar;
         this.indentSize = indentSize;
     }
@@ -40,6 +58,49 @@ public class SerializeContext extends ConfigContext {
         return this.mapper;
     }
 
+    public @NotNull CodecRegistry codecs() {
+        return this.codecs;
+    }
+
+    /**
+     * Gets the writer used to stream values into the file. It
+     * does not close the writer it is given, so values can be
+     * written one after another into the same file.
+     *
+     * @return the value writer
+     */
+    public @NotNull ObjectWriter writer() {
+        return this.writer;
+    }
+
+    /**
+     * Gets a writer for a type. Writers are created once per type
+     * and reused for every save. Values of types which may have
+     * subtypes use the plain {@link #writer()}, so they are written
+     * by their runtime type.
+     *
+     * @param type the type to write
+     * @return the writer
+     */
+    public @NotNull ObjectWriter writer(@NotNull JavaType type) {
+        if (!type.isFinal() && !type.isPrimitive() && !type.isContainerType()) {
+            return this.writer;
+        }
+        return this.writers.computeIfAbsent(type, this.writer::forType);
+    }
+
+    /**
+     * Creates a generator writing into the file. Closing
+     * it does not close the writer it is given.
+     *
+     * @param out the output
+     * @return the generator
+     * @throws IOException if the generator could not be created
+     */
+    public @NotNull JsonGenerator createGenerator(@NotNull Writer out) throws IOException {
+        return this.writer.createGenerator(out);
+    }
+
     public char commentChar() {
         return this.commentChar;
     }
@@ -0,0 +1,58 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.exceptions;
+
+import me.machinemaker.lectern.ConfigurationNode;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exception when values loaded into a configuration fail validation.
+ * Contains every failing path, not only the first one.
+ */
+public class ConfigValidationException extends ConfigException {
+
+    static final long serialVersionUID = 1L;
+
+    private final transient Map<String, String> errors;
+
+    public ConfigValidationException(@NotNull ConfigurationNode config, @NotNull Map<String, String> errors) {
+        super(message(config, errors), config);
+        this.errors = Collections.unmodifiableMap(new LinkedHashMap<>(errors));
+    }
+
+    private static @NotNull String message(@NotNull ConfigurationNode config, @NotNull Map<String, String> errors) {
+        final StringBuilder builder = new StringBuilder().append(errors.size()).append(" invalid value(s) in ").append(config.file());
+        errors.forEach((path, error) -> builder.append("\n  ").append(path).append(": ").append(error));
+        return builder.toString();
+    }
+
+    /**
+     * Gets the failure messages of the invalid values.
+     *
+     * @return the failure messages by path
+     */
+    public @NotNull Map<String, String> errors() {
+        return this.errors;
+    }
+}
@@ -22,7 +22,8 @@ package me.machinemaker.lectern.exceptions.validations;
 import java.lang.reflect.Field;
 
 /**
- * Base exception for validation exceptions.
+ * Base exception for validation exceptions. These are thrown and returned
+ * as part of normal validation, so they do not record a stack trace.
  */
 public abstract class ValidationException extends RuntimeException {
 
@@ -32,7 +33,7 @@ public abstract class ValidationException extends RuntimeException {
     private final transient Field field;
 
     protected ValidationException(String message, Object value, Field field) {
-        super(message + String.format(" (value: %s)", value));
+        super(message + String.format(" (value: %s)", value), null, false, false);
         this.value = value;
         this.field = field;
     }
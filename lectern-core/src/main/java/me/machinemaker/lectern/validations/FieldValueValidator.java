@@ -42,6 +42,20 @@ public abstract class FieldValueValidator<T, A extends Annotation> implements Va
      */
     public abstract boolean validate(T object, Field field, A annotation) throws ValidationException;
 
+    /**
+     * Prepares the validation of a single field. Called once when the wrapper
+     * for the field is built, so state derived from the field or annotation
+     * (compiled patterns, bounds, etc.) can be computed here instead of on
+     * every validation.
+     *
+     * @param field field the validated objects will be set in
+     * @param annotation annotation
+     * @return the validator used for the field
+     */
+    protected ValueValidator<T> prepare(Field field, A annotation) {
+        return object -> this.validate(object, field, annotation);
+    }
+
     @SuppressWarnings("unchecked")
     public final FieldValueValidatorWrapper<T, A> toWrapper(Field field, Annotation annotation) {
         return new FieldValueValidatorWrapper<>(field, (A) annotation, this);
@@ -19,24 +19,26 @@
  */
 package me.machinemaker.lectern.validations;
 
+import org.jetbrains.annotations.NotNull;
+
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 
 public class FieldValueValidatorWrapper<T, A extends Annotation> implements ValueValidator<T> {
 
-    private final Field field;
-    private final A annotation;
-    private final FieldValueValidator<T, A> wrapped;
+    private final ValueValidator<T> prepared;
 
-    @SuppressWarnings("unchecked")
     FieldValueValidatorWrapper(Field field, A annotation, FieldValueValidator<T, A> wrapped) {
-        this.field = field;
-        this.annotation = annotation;
-        this.wrapped = wrapped;
+        this.prepared = wrapped.prepare(field, annotation);
     }
 
     @Override
     public boolean validate(T object) {
-        return this.wrapped.validate(object, this.field, this.annotation);
+        return this.prepared.validate(object);
+    }
+
+    @Override
+    public @NotNull ValidationResult check(T object) {
+        return this.prepared.check(object);
     }
 }
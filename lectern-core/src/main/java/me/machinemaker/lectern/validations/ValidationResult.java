@@ -0,0 +1,83 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.validations;
+
+import me.machinemaker.lectern.exceptions.validations.ValidationException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The result of validating a value. Successful results are a shared
+ * instance, so validating a valid value does not allocate.
+ */
+public final class ValidationResult {
+
+    private static final ValidationResult VALID = new ValidationResult(true, null);
+    private static final ValidationResult INVALID = new ValidationResult(false, null);
+
+    private final boolean valid;
+    private final ValidationException error;
+
+    private ValidationResult(boolean valid, @Nullable ValidationException error) {
+        this.valid = valid;
+        this.error = error;
+    }
+
+    public static @NotNull ValidationResult valid() {
+        return VALID;
+    }
+
+    /**
+     * Gets a failed result without any further information.
+     *
+     * @return the failed result
+     */
+    public static @NotNull ValidationResult invalid() {
+        return INVALID;
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param error the error describing the failure
+     * @return the failed result
+     */
+    public static @NotNull ValidationResult invalid(@NotNull ValidationException error) {
+        return new ValidationResult(false, error);
+    }
+
+    public boolean isValid() {
+        return this.valid;
+    }
+
+    public @Nullable ValidationException error() {
+        return this.error;
+    }
+
+    /**
+     * Describes why a value failed validation.
+     *
+     * @param value the validated value
+     * @return the failure message
+     */
+    public @NotNull String message(@Nullable Object value) {
+        return this.error != null ? this.error.getMessage() : value + " is not a valid value";
+    }
+}
@@ -19,7 +19,53 @@
  */
 package me.machinemaker.lectern.validations;
 
+import me.machinemaker.lectern.exceptions.validations.ValidationException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
 public interface ValueValidator<T> {
 
     boolean validate(T object);
+
+    /**
+     * Validates the object, reporting a failure as a result
+     * instead of throwing a {@link ValidationException}.
+     *
+     * @param object object to validate
+     * @return the result
+     */
+    default @NotNull ValidationResult check(T object) {
+        try {
+            return this.validate(object) ? ValidationResult.valid() : ValidationResult.invalid();
+        } catch (ValidationException e) {
+            return ValidationResult.invalid(e);
+        }
+    }
+
+    /**
+     * Creates a validator from a check which reports failures as results.
+     * {@link #validate(Object)} throws the error of a failed result.
+     *
+     * @param check the check
+     * @param <T> the validated type
+     * @return the validator
+     */
+    static <T> @NotNull ValueValidator<T> of(@NotNull Function<T, @NotNull ValidationResult> check) {
+        return new ValueValidator<>() {
+            @Override
+            public boolean validate(T object) {
+                final ValidationResult result = check.apply(object);
+                if (result.error() != null) {
+                    throw result.error();
+                }
+                return result.isValid();
+            }
+
+            @Override
+            public @NotNull ValidationResult check(T object) {
+                return check.apply(object);
+            }
+        };
+    }
 }
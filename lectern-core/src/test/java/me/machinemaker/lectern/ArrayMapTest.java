@@ -0,0 +1,68 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArrayMapTest {
+
+    @Test
+    void testMatchesLinkedHashMap() {
+        final Map<String, Integer> map = new ArrayMap<>();
+        final Map<String, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < ArrayMap.MAX_ARRAY_SIZE * 2; i++) {
+            map.put("key" + i, i);
+            expected.put("key" + i, i);
+            map.put("key0", -i);
+            expected.put("key0", -i);
+            assertEquals(expected, map);
+            assertEquals(List.copyOf(expected.keySet()), new ArrayList<>(map.keySet()));
+            assertEquals(List.copyOf(expected.values()), new ArrayList<>(map.values()));
+        }
+        assertEquals(ArrayMap.MAX_ARRAY_SIZE * 2, map.size());
+    }
+
+    @Test
+    void testRemoveAndClear() {
+        final Map<String, Integer> map = new ArrayMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("c", 3);
+        assertEquals(Integer.valueOf(2), map.remove("b"));
+        assertNull(map.remove("b"));
+        assertEquals(List.of("a", "c"), new ArrayList<>(map.keySet()));
+        assertTrue(map.containsKey("c"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey("a"));
+        assertNull(map.get("a"));
+    }
+}
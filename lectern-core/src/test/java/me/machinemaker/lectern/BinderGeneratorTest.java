@@ -0,0 +1,95 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.machinemaker.lectern.annotations.ConfigurationSection;
+import me.machinemaker.lectern.contexts.InvalidKeyHandler;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class BinderGeneratorTest {
+
+    @Test
+    void testGeneratedBinder() {
+        final TestConfig config = new TestConfig();
+        final SectionNode root = new ConfigurationNode(Path.of("test.yml"), new ObjectMapper(), InvalidKeyHandler.Preset.EXCEPTION, '#', 2) {};
+        config.createDefaultSectionNodeSchema(config, root);
+        final FieldBinder<TestConfig> binder = BinderGenerator.find(TestConfig.class);
+        assertNotNull(binder);
+
+        root.set("number", 5);
+        root.set("list", List.of("a", "b"));
+        root.set("ratio", 2);
+        root.set("section.flag", false);
+        final TestConfig.Section section = config.section;
+        binder.loadFields(config, root);
+        assertEquals(5L, config.number);
+        assertEquals(List.of("a", "b"), config.list);
+        assertEquals(Double.valueOf(2), config.ratio);
+        assertSame(section, config.section);
+        assertFalse(config.section.flag);
+
+        config.section = null;
+        binder.loadFields(config, root);
+        assertNotNull(config.section);
+        assertFalse(config.section.flag);
+
+        config.number = 10;
+        config.section.flag = true;
+        binder.loadConfigTree(config, root);
+        final Object number = root.get("number");
+        final Object flag = root.get("section.flag");
+        assertEquals(10L, number);
+        assertEquals(true, flag);
+    }
+
+    @Test
+    void testFinalFieldsUseReflection() {
+        assertNull(BinderGenerator.find(FinalConfig.class));
+    }
+
+    private static class TestConfig extends BaseConfig {
+
+        private long number = 1;
+        private List<String> list = List.of();
+        private Double ratio = 1.0;
+        private Section section = new Section();
+
+        @ConfigurationSection(path = "section")
+        private static class Section {
+
+            private boolean flag = true;
+        }
+    }
+
+    private static class FinalConfig extends BaseConfig {
+
+        private final int number = 1;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import me.machinemaker.lectern.codecs.CodecRegistry;
+import me.machinemaker.lectern.codecs.ValueCodec;
+import me.machinemaker.lectern.contexts.InvalidKeyHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodecRegistryTest {
+
+    static final String JSON = """
+            {
+              "text": "value",
+              "number": "12",
+              "ratio": 3,
+              "enabled": true,
+              "list": ["a", null, 5],
+              "modes": ["FAST"],
+              "limits": {"a": 1, "b": null},
+              "timeout": "PT5M"
+            }
+            """;
+
+    enum Mode {
+        FAST, SLOW
+    }
+
+    @TempDir
+    Path tempDir;
+
+    static ConfigurationNode create(Path file, CodecRegistry codecs) {
+        final ConfigurationNode node = new ConfigurationNodeTest.JsonBuilder(file).withInvalidKeyHandler(InvalidKeyHandler.Preset.SILENT).withCodecs(codecs).build();
+        node.addChild("text", "default")
+                .addChild("number", 1)
+                .addChild("ratio", 0.5)
+                .addChild("enabled", false)
+                .addChild("list", new TypeReference<List<String>>() {})
+                .addChild("modes", new TypeReference<Set<Mode>>() {})
+                .addChild("limits", new TypeReference<Map<String, Integer>>() {});
+        return node;
+    }
+
+    @Test
+    void testSameAsJackson() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), JSON);
+        final ConfigurationNode withCodecs = create(file, CodecRegistry.defaults());
+        final ConfigurationNode withJackson = create(file, CodecRegistry.empty());
+        withCodecs.reload();
+        withJackson.reload();
+        for (String key : List.of("text", "number", "ratio", "enabled", "list", "modes", "limits")) {
+            assertEquals(withJackson.<Object>get(key), withCodecs.get(key), key);
+        }
+        final Object number = withCodecs.get("number");
+        assertEquals(12, number);
+
+        final Path codecsFile = this.tempDir.resolve("codecs.json");
+        final Path jacksonFile = this.tempDir.resolve("jackson.json");
+        create(codecsFile, CodecRegistry.defaults()).save();
+        create(jacksonFile, CodecRegistry.empty()).save();
+        assertEquals(Files.readString(jacksonFile), Files.readString(codecsFile));
+    }
+
+    @Test
+    void testDuration() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), JSON);
+        final ConfigurationNode node = create(file, CodecRegistry.defaults());
+        node.addChild("timeout", new TypeReference<Duration>() {});
+        node.reload();
+        assertEquals(Duration.ofMinutes(5), node.get("timeout"));
+        node.set("timeout", Duration.ofMillis(1500));
+        node.save();
+        assertTrue(Files.readString(file).contains("{\"timeout\":\"PT1.5S\"}"));
+    }
+
+    @Test
+    void testDurationWithMapperSerializer() throws IOException {
+        final SimpleModule module = new SimpleModule()
+                .addSerializer(Duration.class, new StdSerializer<>(Duration.class) {
+                    @Override
+                    public void serialize(Duration value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+                        generator.writeNumber(value.toMillis());
+                    }
+                })
+                .addDeserializer(Duration.class, new StdDeserializer<>(Duration.class) {
+                    @Override
+                    public Duration deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                        return Duration.ofMillis(parser.getLongValue());
+                    }
+                });
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), "{\"timeout\": 1500}");
+        final ConfigurationNode node = new ConfigurationNodeTest.JsonBuilder(file).withMapper(new ObjectMapper().registerModule(module)).build();
+        node.addChild("timeout", new TypeReference<Duration>() {});
+        node.reload();
+        assertEquals(Duration.ofMillis(1500), node.get("timeout"));
+        node.set("timeout", Duration.ofSeconds(2));
+        node.save();
+        assertTrue(Files.readString(file).contains("{\"timeout\":2000}"));
+    }
+
+    @Test
+    void testFactories() {
+        final TypeFactory types = TypeFactory.defaultInstance();
+        final JavaType stringList = types.constructType(new TypeReference<List<String>>() {});
+        assertNotNull(CodecRegistry.defaults().find(stringList));
+        assertSame(CodecRegistry.defaults().find(stringList), CodecRegistry.defaults().find(stringList));
+        assertNull(CodecRegistry.defaults().find(types.constructType(Object.class)));
+        assertNull(CodecRegistry.empty().find(types.constructType(String.class)));
+
+        final ValueCodec<?> custom = CodecRegistry.defaults().find(types.constructType(Integer.class));
+        final CodecRegistry registry = CodecRegistry.defaults().with((type, codecs) -> type.hasRawClass(String.class) ? custom : null);
+        assertSame(custom, registry.find(types.constructType(String.class)));
+        assertNotNull(registry.find(types.constructType(Mode.class)));
+    }
+}
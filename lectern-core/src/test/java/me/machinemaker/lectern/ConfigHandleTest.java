@@ -0,0 +1,92 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.machinemaker.lectern.annotations.Configuration;
+import me.machinemaker.lectern.annotations.validations.numbers.Min;
+import me.machinemaker.lectern.contexts.InvalidKeyHandler;
+import me.machinemaker.lectern.exceptions.ConfigValidationException;
+import me.machinemaker.lectern.supplier.ConfigurationSupplier;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigHandleTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReloadPublishesFreshInstance() throws IOException {
+        final ConfigHandle<Config> handle = ConfigHandle.create(Config.class, this.tempDir);
+        final Config first = handle.get();
+        assertEquals(1, first.count);
+        assertFalse(handle.reloadIfChanged());
+
+        Files.writeString(handle.file(), "{\"count\": 5}");
+        assertTrue(handle.reloadIfChanged());
+        final Config second = handle.get();
+        assertNotSame(first, second);
+        assertEquals(1, first.count);
+        assertEquals(5, second.count);
+
+        Files.writeString(handle.file(), "{\"count\": -1}");
+        assertThrows(ConfigValidationException.class, handle::reload);
+        assertSame(second, handle.get());
+        assertEquals(5, second.count);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    @Configuration(supplier = JsonConfig.Supplier.class)
+    @interface JsonConfig {
+
+        class Supplier implements ConfigurationSupplier<JsonConfig> {
+
+            @Override
+            public @NotNull ConfigurationNode createConfiguration(@NotNull Path parentDir, @NotNull JsonConfig configuration) {
+                return new ConfigurationNode(parentDir.resolve("config.json"), new ObjectMapper(), InvalidKeyHandler.Preset.EXCEPTION, '#', 2) {};
+            }
+        }
+    }
+
+    @JsonConfig
+    static class Config extends BaseConfig {
+
+        @Min(0)
+        int count = 1;
+    }
+}
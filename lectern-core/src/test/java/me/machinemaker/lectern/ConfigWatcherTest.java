@@ -0,0 +1,127 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.machinemaker.lectern.contexts.InvalidKeyHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigWatcherTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReloadOnExternalChange() throws IOException, InterruptedException {
+        final Semaphore reloads = new Semaphore(0);
+        final ConfigurationNode node = new ConfigurationNode(this.tempDir.resolve("config.json"), new ObjectMapper(), InvalidKeyHandler.Preset.SILENT, '#', 2, SaveMode.ATOMIC) {
+            @Override
+            public boolean reloadIfChanged() {
+                final boolean reloaded = super.reloadIfChanged();
+                if (reloaded) {
+                    reloads.release();
+                }
+                return reloaded;
+            }
+        };
+        node.addChild("number", 1);
+        node.save();
+
+        try (ConfigWatcher watcher = ConfigWatcher.builder().withDebounce(Duration.ofMillis(50)).build()) {
+            watcher.watch(node);
+            assertThrows(IllegalArgumentException.class, () -> watcher.watch(node));
+
+            node.set("number", 2);
+            node.save();
+            assertFalse(reloads.tryAcquire(500, TimeUnit.MILLISECONDS));
+
+            for (int i = 3; i <= 5; i++) {
+                Files.writeString(node.file(), "{\"number\": " + i + "}");
+            }
+            assertTrue(reloads.tryAcquire(5, TimeUnit.SECONDS));
+            final Object number = node.get("number");
+            assertEquals(5, number);
+            assertFalse(reloads.tryAcquire(500, TimeUnit.MILLISECONDS));
+
+            assertTrue(watcher.unwatch(node));
+            assertFalse(watcher.unwatch(node));
+        }
+    }
+
+    @Test
+    void testReloadsOfAFileDoNotOverlap() throws IOException, InterruptedException {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final Semaphore reloads = new Semaphore(0);
+        final ConfigurationNode node = new ConfigurationNode(this.tempDir.resolve("config.json"), new ObjectMapper(), InvalidKeyHandler.Preset.SILENT, '#', 2) {
+            @Override
+            public boolean reloadIfChanged() {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                try {
+                    Thread.sleep(200);
+                    return super.reloadIfChanged();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    running.decrementAndGet();
+                    reloads.release();
+                }
+            }
+        };
+        node.addChild("number", 1);
+        node.save();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (ConfigWatcher watcher = ConfigWatcher.builder().withExecutor(executor).withDebounce(Duration.ofMillis(20)).build()) {
+            watcher.watch(node);
+            for (int i = 2; i <= 6; i++) {
+                Files.writeString(node.file(), "{\"number\": " + i + "}");
+                Thread.sleep(60);
+            }
+            assertTrue(reloads.tryAcquire(2, 5, TimeUnit.SECONDS));
+            while (reloads.tryAcquire(500, TimeUnit.MILLISECONDS)) {
+                // wait for the rescheduled reloads to finish
+            }
+            assertEquals(0, overlaps.get());
+            final Object number = node.get("number");
+            assertEquals(6, number);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,508 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import me.machinemaker.lectern.codecs.CodecRegistry;
+import me.machinemaker.lectern.codecs.ValueCodec;
+import me.machinemaker.lectern.contexts.InvalidKeyHandler;
+import me.machinemaker.lectern.contexts.LoadContext;
+import me.machinemaker.lectern.contexts.SerializeContext;
+import me.machinemaker.lectern.exceptions.ConfigValidationException;
+import me.machinemaker.lectern.exceptions.InvalidKeyException;
+import me.machinemaker.lectern.validations.ValidationResult;
+import me.machinemaker.lectern.validations.ValueValidator;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigurationNodeTest {
+
+    static final String JSON = """
+            {
+              "unknown": {"nested": [1, 2, {"deep": true}]},
+              "number": 12,
+              "section": {
+                "list": ["a", "b"],
+                "map": {"key": 1.5}
+              },
+              "text": "value"
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    static final class JsonBuilder extends ConfigurationNode.TypedBuilder<ConfigurationNode, JsonBuilder> {
+
+        JsonBuilder(Path file) {
+            super(file);
+        }
+
+        @Override
+        public @NotNull ConfigurationNode build() {
+            return new ConfigurationNode(this, this.mapper(), '#', 2) {};
+        }
+    }
+
+    static ConfigurationNode create(Path file, InvalidKeyHandler invalidKeyHandler) {
+        final ConfigurationNode node = new ConfigurationNode(file, new ObjectMapper(), invalidKeyHandler, '#', 2) {};
+        node.addChild("number", 1)
+                .addChild("text", "default")
+                .addSection("section", section -> section
+                        .addChild("list", new TypeReference<List<String>>() {})
+                        .addChild("map", new TypeReference<Map<String, Double>>() {}));
+        return node;
+    }
+
+    @Test
+    void testStreamingReload() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), JSON);
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        node.reload();
+        final Object number = node.get("number");
+        assertEquals(12, number);
+        assertEquals("value", node.get("text"));
+        assertEquals(List.of("a", "b"), node.get("section.list"));
+        assertEquals(Map.of("key", 1.5), node.get("section.map"));
+    }
+
+    @Test
+    void testStreamingSave() throws IOException {
+        final Path file = this.tempDir.resolve("nested").resolve("config.json");
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        node.getNode("section").description("a section");
+        node.set("section.list", new TypeReference<List<String>>() {}, List.of("a"));
+        node.save();
+        assertEquals("""
+                {"number":1}
+                {"text":"default"}
+                # a section
+                section:
+                  {"list":["a"]}
+                """, Files.readString(file));
+    }
+
+    @Test
+    void testValueWriters() throws IOException {
+        final Path file = this.tempDir.resolve("config.json");
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        final TypeFactory types = TypeFactory.defaultInstance();
+        final SerializeContext context = new SerializeContext(node, new ObjectMapper(), '#', 2);
+        assertSame(context.writer(types.constructType(String.class)), context.writer(types.constructType(String.class)));
+        assertSame(context.writer(), context.writer(types.constructType(Object.class)));
+
+        node.addChild("any", types.constructType(Object.class), Map.of("nested", 1));
+        node.warmUp();
+        node.save();
+        assertTrue(Files.readString(file).endsWith("{\"any\":{\"nested\":1}}\n"));
+    }
+
+    @Test
+    void testSharedMappers() {
+        final ObjectMapper mapper = ObjectMappers.json();
+        assertSame(mapper, ObjectMappers.json());
+        assertSame(mapper, ObjectMappers.shared(mapper.getFactory()));
+        assertSame(mapper, new JsonBuilder(this.tempDir.resolve("config.json")).mapper());
+        assertNotSame(mapper, new JsonBuilder(this.tempDir.resolve("config.json")).withMapper(new ObjectMapper()).mapper());
+    }
+
+    @Test
+    void testAtomicSave() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), JSON);
+        final ConfigurationNode node = new ConfigurationNode(file, new ObjectMapper(), InvalidKeyHandler.Preset.SILENT, '#', 2, SaveMode.ATOMIC_SYNC) {};
+        node.addChild("number", 1);
+        node.save();
+        assertEquals("{\"number\":1}\n", Files.readString(file));
+        final FileTime marker = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, marker);
+        node.set("number", 2);
+        node.set("number", 1);
+        node.save();
+        assertEquals(marker, Files.getLastModifiedTime(file));
+        try (var files = Files.list(this.tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void testConcurrentAtomicSaves() throws InterruptedException, IOException {
+        final Path file = this.tempDir.resolve("config.json");
+        final Thread[] threads = new Thread[4];
+        final List<Throwable> failures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < threads.length; t++) {
+            final ConfigurationNode node = new ConfigurationNode(file, new ObjectMapper(), InvalidKeyHandler.Preset.SILENT, '#', 2, SaveMode.ATOMIC) {};
+            node.addChild("number", t);
+            threads[t] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 50; i++) {
+                        node.set("number", i);
+                        node.save();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(List.of(), failures);
+        assertEquals("{\"number\":49}\n", Files.readString(file));
+        try (var files = Files.list(this.tempDir)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void testChangedSaveRendersOnce() throws IOException {
+        final Path file = this.tempDir.resolve("config.json");
+        final AtomicInteger writes = new AtomicInteger();
+        final ValueCodec<String> strings = CodecRegistry.defaults().find(TypeFactory.defaultInstance().constructType(String.class));
+        final CodecRegistry codecs = CodecRegistry.defaults().with((type, registry) -> !type.hasRawClass(String.class) ? null : new ValueCodec<String>() {
+            @Override
+            public String read(@NotNull JsonParser parser, @NotNull LoadContext context) throws IOException {
+                return strings.read(parser, context);
+            }
+
+            @Override
+            public void write(@NotNull JsonGenerator generator, @NotNull String value, @NotNull SerializeContext context) throws IOException {
+                writes.incrementAndGet();
+                strings.write(generator, value, context);
+            }
+        });
+        final ConfigurationNode node = new JsonBuilder(file).withCodecs(codecs).build();
+        node.addChild("text", "default");
+        node.save();
+        writes.set(0);
+        node.set("text", "changed");
+        node.save();
+        assertEquals(1, writes.get());
+        assertEquals("{\"text\":\"changed\"}\n", Files.readString(file));
+        node.save();
+        assertEquals(1, writes.get());
+    }
+
+    @Test
+    void testEqualValueReachesCallback() throws IOException {
+        final Path file = this.tempDir.resolve("config.json");
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        node.save();
+        final List<Object> seen = new CopyOnWriteArrayList<>();
+        ((ValueNode<?>) node.getNode("number")).callback = seen::add;
+        ((ValueNode<?>) node.getNode("text")).callback = seen::add;
+        node.set("number", 1);
+        node.set("text", "default");
+        assertEquals(List.of(1, "default"), seen);
+        assertFalse(node.isDirty());
+    }
+
+    @Test
+    void testDirtyTracking() throws IOException {
+        final Path file = this.tempDir.resolve("config.json");
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        assertTrue(node.isDirty());
+        node.save();
+        assertFalse(node.isDirty());
+
+        node.set("number", 1);
+        node.set("section.list", new TypeReference<List<String>>() {}, null);
+        assertFalse(node.isDirty());
+        node.set("section.list", new TypeReference<List<String>>() {}, List.of("a"));
+        assertTrue(node.isDirty());
+        assertTrue(node.getNode("section").isDirty());
+        assertFalse(node.getNode("number").isDirty());
+    }
+
+    @Test
+    void testSaveSkipsUnchangedContent() throws IOException {
+        final Path file = this.tempDir.resolve("config.json");
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        node.save();
+        final FileTime marker = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(file, marker);
+
+        node.save();
+        assertEquals(marker, Files.getLastModifiedTime(file));
+        node.set("number", 2);
+        node.set("number", 1);
+        node.save();
+        assertEquals(marker, Files.getLastModifiedTime(file));
+
+        Files.writeString(file, "{}");
+        node.save();
+        assertEquals("{\"number\":1}\n{\"text\":\"default\"}\nsection:\n", Files.readString(file));
+        Files.writeString(file, "{\"number\":1}\n{\"text\":\"default\"}\nsection:\n  extra: true\n");
+        node.save();
+        assertEquals("{\"number\":1}\n{\"text\":\"default\"}\nsection:\n", Files.readString(file));
+    }
+
+    @Test
+    void testReloadIfChanged() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), JSON);
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        assertTrue(node.reloadIfChanged());
+        assertFalse(node.reloadIfChanged());
+
+        node.set("number", 3);
+        assertTrue(node.reloadIfChanged());
+        Object number = node.get("number");
+        assertEquals(12, number);
+
+        node.save();
+        assertFalse(node.reloadIfChanged());
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+        assertFalse(node.reloadIfChanged());
+        Files.writeString(file, "{\"number\":4}\n{\"text\":\"default\"}\nsection:\n");
+        assertTrue(node.reloadIfChanged());
+        number = node.get("number");
+        assertEquals(4, number);
+    }
+
+    @Test
+    void testValidationErrorsAreCollected() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), "{\"first\": -1, \"section\": {\"second\": -2}, \"third\": 3}");
+        final ConfigurationNode node = new ConfigurationNode(file, new ObjectMapper(), InvalidKeyHandler.Preset.SILENT, '#', 2) {};
+        final ValueValidator<Integer> positive = ValueValidator.of(value -> value > 0 ? ValidationResult.valid() : ValidationResult.invalid());
+        final JavaType intType = TypeFactory.defaultInstance().constructType(Integer.class);
+        node.addChild(new ValueNode<>("first", node, List.of(positive), intType, 1));
+        node.addSection("section", section -> section.addChild(new ValueNode<>("second", section, List.of(positive), intType, 1)));
+        node.addChild(new ValueNode<>("third", node, List.of(positive), intType, 1));
+
+        final ConfigValidationException exception = assertThrows(ConfigValidationException.class, node::reload);
+        assertEquals(List.of("first", "section.second"), List.copyOf(exception.errors().keySet()));
+        assertEquals("-2 is not a valid value", exception.errors().get("section.second"));
+        final Object third = node.get("third");
+        assertEquals(1, third);
+    }
+
+    @Test
+    void testParallelValidation() throws IOException {
+        final int count = 1000;
+        final StringBuilder json = new StringBuilder("{");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append("\"key").append(i).append("\": ").append(i % 250 == 7 ? -i : i);
+        }
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), json.append('}'));
+        final ConfigurationNode node = new JsonBuilder(file).withParallelValidation(new ForkJoinPool(4), 100).build();
+        final ValueValidator<Integer> nonNegative = ValueValidator.of(value -> value >= 0 ? ValidationResult.valid() : ValidationResult.invalid());
+        final JavaType intType = TypeFactory.defaultInstance().constructType(Integer.class);
+        for (int i = 0; i < count; i++) {
+            node.addChild(new ValueNode<>("key" + i, node, List.of(nonNegative), intType, 0));
+        }
+
+        final ConfigValidationException exception = assertThrows(ConfigValidationException.class, node::reload);
+        assertEquals(List.of("key7", "key257", "key507", "key757"), List.copyOf(exception.errors().keySet()));
+
+        Files.writeString(file, json.toString().replace("-", ""));
+        node.reload();
+        final Object last = node.get("key999");
+        assertEquals(999, last);
+    }
+
+    @Test
+    void testSnapshot() {
+        final ConfigurationNode node = create(this.tempDir.resolve("config.json"), InvalidKeyHandler.Preset.SILENT);
+        node.addSection("other").addChild("flag", true);
+        final SectionSnapshot first = node.snapshot();
+        assertSame(first, node.snapshot());
+
+        node.set("section.list", new TypeReference<List<String>>() {}, List.of("a"));
+        final SectionSnapshot second = node.snapshot();
+        assertNotSame(first, second);
+        assertNull(first.get("section.list"));
+        assertEquals(List.of("a"), second.get("section.list"));
+        assertSame(first.getNode("other"), second.getNode("other"));
+        assertSame(first.getNode("number"), second.getNode("number"));
+        assertNotSame(first.getNode("section"), second.getNode("section"));
+        assertSame(((SectionSnapshot) first.getNode("section")).getNode("map"), ((SectionSnapshot) second.getNode("section")).getNode("map"));
+        assertNull(second.getNode("number.missing"));
+    }
+
+    @Test
+    void testUnboxedNodes() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), "{\"count\": 3, \"ratio\": 2, \"enabled\": false}");
+        final ConfigurationNode node = create(file, InvalidKeyHandler.Preset.SILENT);
+        final TypeFactory types = TypeFactory.defaultInstance();
+        node.addChild("count", types.constructType(int.class), 1)
+                .addChild("ratio", types.constructType(double.class), 0.5)
+                .addChild("enabled", types.constructType(boolean.class), true);
+        final IntValueNode count = (IntValueNode) node.getNode("count");
+        count.validators(List.of(ValueValidator.of(value -> value >= 0 ? ValidationResult.valid() : ValidationResult.invalid())));
+        node.reload();
+        assertEquals(3, count.intValue());
+        assertEquals(2.0, ((DoubleValueNode) node.getNode("ratio")).doubleValue());
+        assertFalse(((BooleanValueNode) node.getNode("enabled")).booleanValue());
+
+        count.intValue(4);
+        final Object boxed = node.get("count");
+        assertEquals(4, boxed);
+        assertThrows(IllegalArgumentException.class, () -> count.intValue(-1));
+        assertThrows(IllegalArgumentException.class, () -> node.set("count", "text"));
+        assertTrue(count.compareAndSet(4, 5));
+        assertFalse(count.compareAndSet(4, 6));
+        assertEquals(5, count.intValue());
+
+        final ValueNode<Integer> generic = count;
+        assertTrue(generic.compareAndSet(5, 7));
+        assertFalse(generic.compareAndSet(null, 8));
+        assertThrows(IllegalArgumentException.class, () -> generic.compareAndSet(7, null));
+        assertEquals(7, count.intValue());
+    }
+
+    @Test
+    void testPathIndex() {
+        final ConfigurationNode node = create(this.tempDir.resolve("config.json"), InvalidKeyHandler.Preset.SILENT);
+        final SectionNode section = (SectionNode) node.getNode("section");
+        assertSame(section.children().get("list"), node.getNode("section.list"));
+        assertEquals("section.list", node.getNode("section.list").path());
+        assertNull(node.getNode("number.missing"));
+
+        final Node map = section.children().get("map");
+        assertSame(map, section.removeChild("map"));
+        assertNull(section.removeChild("map"));
+        assertNull(node.getNode("section.map"));
+        assertThrows(UnsupportedOperationException.class, () -> section.children().remove("list"));
+
+        node.set("a.b.c", "value");
+        assertEquals("value", node.get("a.b.c"));
+        section.clear();
+        assertNull(node.getNode("section.list"));
+        assertSame(section, node.getNode("section"));
+
+        final SectionNode replacement = new SectionNode("a", node);
+        replacement.addChild("d", 1);
+        node.addChild(replacement);
+        assertNull(node.getNode("a.b.c"));
+        assertSame(replacement.children().get("d"), node.getNode("a.d"));
+    }
+
+    @Test
+    void testConfigKey() {
+        final ConfigurationNode node = create(this.tempDir.resolve("config.json"), InvalidKeyHandler.Preset.SILENT);
+        final ConfigKey<String> text = ConfigKey.of("text", String.class);
+        final ConfigKey<Integer> count = ConfigKey.of("section.count", Integer.class);
+        node.set("section.count", TypeFactory.defaultInstance().constructType(int.class), 3);
+        assertEquals("default", node.get(text));
+        assertEquals(3, count.getInt(node));
+        final ValueNode<Integer> first = count.node(node);
+        assertSame(first, count.node(node));
+
+        count.set(node, 4);
+        assertEquals(4, count.getInt(node));
+        ((SectionNode) node.getNode("section")).clear();
+        assertThrows(IllegalStateException.class, () -> count.getInt(node));
+        node.set("section.count", TypeFactory.defaultInstance().constructType(int.class), 5);
+        assertNotSame(first, count.node(node));
+        assertEquals(5, count.getInt(node));
+
+        assertThrows(IllegalStateException.class, () -> ConfigKey.of("text", Integer.class).get(node));
+        assertThrows(IllegalStateException.class, () -> text.getInt(node));
+        assertThrows(IllegalArgumentException.class, () -> ConfigKey.of("section..count", Integer.class));
+    }
+
+    @Test
+    void testConcurrentTree() throws InterruptedException {
+        final ConfigurationNode node = new JsonBuilder(this.tempDir.resolve("config.json")).withConcurrentTree().build();
+        final JavaType intType = TypeFactory.defaultInstance().constructType(Integer.class);
+        final ValueNode<Integer> counter = node.set("section.counter", intType, 0);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    node.set("section.key" + (i * threads.length + offset), intType, i);
+                    Integer current;
+                    do {
+                        current = counter.value();
+                    } while (!counter.compareAndSet(current, current + 1));
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1000, (int) counter.value());
+        final SectionNode section = (SectionNode) node.getNode("section");
+        assertEquals(1001, section.children().size());
+        assertEquals("counter", section.children().keySet().iterator().next());
+        final Object snapshotted = node.snapshot().get("section.counter");
+        assertEquals(1000, snapshotted);
+        assertFalse(counter.compareAndSet(0, 1));
+    }
+
+    @Test
+    void testIndentingWriter() throws IOException {
+        final StringWriter out = new StringWriter();
+        final IndentingWriter writer = new IndentingWriter(out);
+        writer.indent(2);
+        writer.write("a:\n  - b\n\n");
+        writer.indent(4);
+        writer.write("c".toCharArray());
+        writer.endLine();
+        writer.endLine();
+        assertEquals("  a:\n    - b\n\n    c\n", out.toString());
+    }
+
+    @Test
+    void testInvalidKey() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), JSON);
+        assertThrows(InvalidKeyException.class, create(file, InvalidKeyHandler.Preset.EXCEPTION)::reload);
+    }
+
+    @Test
+    void testInvalidValue() throws IOException {
+        final Path file = Files.writeString(this.tempDir.resolve("config.json"), "{\"number\": \"not a number\"}");
+        assertThrows(IllegalArgumentException.class, create(file, InvalidKeyHandler.Preset.SILENT)::reload);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CopyOnWriteLinkedMapTest {
+
+    @Test
+    void testMatchesLinkedHashMap() {
+        final Map<String, Integer> map = new CopyOnWriteLinkedMap<>();
+        final Map<String, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, i);
+            expected.put("key" + i, i);
+            map.put("key0", -i);
+            expected.put("key0", -i);
+            if (i % 10 == 5) {
+                map.remove("key" + (i - 1));
+                expected.remove("key" + (i - 1));
+            }
+            assertEquals(expected, map);
+            assertEquals(List.copyOf(expected.keySet()), new ArrayList<>(map.keySet()));
+            assertEquals(List.copyOf(expected.values()), new ArrayList<>(map.values()));
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("key0"));
+    }
+
+    @Test
+    void testIterationSeesContentsAtStart() {
+        final Map<String, Integer> map = new CopyOnWriteLinkedMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        final Iterable<Map.Entry<String, Integer>> before = map.entrySet();
+        map.put("c", 3);
+        map.put("a", 4);
+        map.remove("b");
+
+        final List<String> seen = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : before) {
+            seen.add(entry.getKey() + "=" + entry.getValue());
+        }
+        assertEquals(List.of("a=1", "b=2"), seen);
+        assertEquals(List.of("a", "c"), new ArrayList<>(map.keySet()));
+    }
+}
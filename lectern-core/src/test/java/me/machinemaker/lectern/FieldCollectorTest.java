@@ -30,6 +30,9 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FieldCollectorTest {
 
@@ -46,6 +49,28 @@ class FieldCollectorTest {
         assertEquals(TypeFactory.defaultInstance().constructMapType(Map.class, TypeFactory.defaultInstance().constructType(String.class), TypeFactory.defaultInstance().constructCollectionType(List.class, Integer.class)), fields.get(3).type());
     }
 
+    @Test
+    void testCachedFields() {
+        List<ConfigField> fields = FieldCollector.fields(TestConfig.class);
+        assertSame(fields, FieldCollector.fields(TestConfig.class));
+        assertEquals(new FieldCollector(TestConfig.class).collectFields().size(), fields.size());
+        assertThrows(UnsupportedOperationException.class, () -> fields.get(0).meta().put("key", "value"));
+    }
+
+    @Test
+    void testFieldAccess() {
+        List<ConfigField> fields = FieldCollector.fields(TestConfig.class);
+        TestConfig config = new TestConfig();
+        ConfigField.Value privateField = (ConfigField.Value) fields.get(1);
+        privateField.setBoolean(config, true);
+        assertTrue(config.privateField);
+        assertEquals(Boolean.TRUE, privateField.get(config));
+        assertThrows(IllegalStateException.class, () -> privateField.setInt(config, 1));
+        assertThrows(IllegalArgumentException.class, () -> privateField.set(config, "not a boolean"));
+        fields.get(0).set(config, "value");
+        assertEquals("value", config.publicField);
+    }
+
     private static class TestConfig extends BaseConfig {
 
         @Key("this-is-a-public-field")
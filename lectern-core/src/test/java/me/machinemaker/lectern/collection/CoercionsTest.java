@@ -0,0 +1,76 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CoercionsTest {
+
+    @Test
+    void testWidening() {
+        assertEquals(5L, Coercions.forType(long.class).apply(5));
+        assertEquals(5.0f, Coercions.forType(Float.class).apply(5));
+        assertEquals(1.5f, Coercions.forType(float.class).apply(1.5));
+        assertEquals(2.0, Coercions.forType(double.class).apply(2L));
+        assertEquals(BigDecimal.valueOf(7), Coercions.forType(BigDecimal.class).apply(7));
+        assertEquals(new BigDecimal("0.1"), Coercions.forType(BigDecimal.class).apply(0.1));
+        assertEquals(BigInteger.TEN, Coercions.forType(BigInteger.class).apply(10L));
+    }
+
+    @Test
+    void testNarrowing() {
+        final Function<Object, Object> toByte = Coercions.forType(byte.class);
+        assertEquals((byte) 100, toByte.apply(100));
+        assertSame(Coercions.INVALID, toByte.apply(300));
+        assertEquals((short) -5, Coercions.forType(short.class).apply(-5L));
+        assertEquals(5, Coercions.forType(int.class).apply(5.0));
+        assertSame(Coercions.INVALID, Coercions.forType(int.class).apply(5.5));
+        assertSame(Coercions.INVALID, Coercions.forType(int.class).apply(Long.MAX_VALUE));
+        assertEquals(12L, Coercions.forType(Long.class).apply(new BigDecimal("12.000")));
+        assertSame(Coercions.INVALID, Coercions.forType(long.class).apply(BigInteger.ONE.shiftLeft(64)));
+        assertSame(Coercions.INVALID, Coercions.forType(float.class).apply(Double.MAX_VALUE));
+        assertSame(Coercions.INVALID, Coercions.forType(float.class).apply(0.1));
+        assertSame(Coercions.INVALID, Coercions.forType(Float.class).apply(new BigDecimal("0.1")));
+        assertSame(Coercions.INVALID, Coercions.forType(float.class).apply(16_777_217));
+        assertEquals(16_777_216f, Coercions.forType(float.class).apply(16_777_216L));
+        assertEquals(Float.NaN, Coercions.forType(float.class).apply(Double.NaN));
+        assertSame(Coercions.INVALID, Coercions.forType(BigInteger.class).apply(1.5));
+    }
+
+    @Test
+    void testNonNumeric() {
+        assertNull(Coercions.forType(Integer.class).apply(null));
+        assertSame(Coercions.INVALID, Coercions.forType(int.class).apply(null));
+        assertSame(Coercions.INVALID, Coercions.forType(int.class).apply("5"));
+        assertEquals(true, Coercions.forType(boolean.class).apply(true));
+        final List<String> list = List.of("a");
+        assertSame(list, Coercions.forType(List.class).apply(list));
+        assertSame(Coercions.INVALID, Coercions.forType(String.class).apply(list));
+    }
+}
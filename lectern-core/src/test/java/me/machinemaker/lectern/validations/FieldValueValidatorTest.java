@@ -0,0 +1,79 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.validations;
+
+import me.machinemaker.lectern.annotations.validations.RegExp;
+import me.machinemaker.lectern.annotations.validations.Size;
+import me.machinemaker.lectern.exceptions.validations.RegExpValidationException;
+import me.machinemaker.lectern.exceptions.validations.SizeValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FieldValueValidatorTest {
+
+    @RegExp("[a-z]+")
+    @Size(max = 4)
+    String name;
+
+    static <T, A extends Annotation> ValueValidator<T> wrap(FieldValueValidator<T, A> validator, Class<A> annotationType) throws NoSuchFieldException {
+        final Field field = FieldValueValidatorTest.class.getDeclaredField("name");
+        return validator.toWrapper(field, field.getAnnotation(annotationType));
+    }
+
+    @Test
+    void testPreparedOnce() throws NoSuchFieldException {
+        final int[] prepared = {0};
+        final ValueValidator<Object> validator = wrap(new FieldValueValidator<Object, Size>() {
+            @Override
+            public boolean validate(Object object, Field field, Size annotation) {
+                return true;
+            }
+
+            @Override
+            protected ValueValidator<Object> prepare(Field field, Size annotation) {
+                prepared[0]++;
+                return super.prepare(field, annotation);
+            }
+        }, Size.class);
+        assertTrue(validator.validate("a"));
+        assertTrue(validator.validate("b"));
+        assertEquals(1, prepared[0]);
+    }
+
+    @Test
+    void testPreparedBuiltins() throws NoSuchFieldException {
+        final ValueValidator<CharSequence> regExp = wrap(new RegExp.Validator(), RegExp.class);
+        assertTrue(regExp.validate("abc"));
+        assertThrows(RegExpValidationException.class, () -> regExp.validate("ABC"));
+
+        final ValueValidator<Object> size = wrap(new Size.Validator(), Size.class);
+        assertTrue(size.validate("abc"));
+        assertTrue(size.validate(List.of(1)));
+        assertThrows(SizeValidationException.class, () -> size.validate("abcd"));
+        assertThrows(SizeValidationException.class, () -> size.validate(1));
+    }
+}
@@ -0,0 +1,6 @@
+group = "me.machinemaker.lectern"
+description = "Annotation processor generating config binders"
+
+dependencies {
+    implementation(project(":lectern-core"))
+}
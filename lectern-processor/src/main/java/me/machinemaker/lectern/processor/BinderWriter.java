@@ -0,0 +1,274 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.processor;
+
+import me.machinemaker.lectern.processor.ConfigProcessor.BoundField;
+import me.machinemaker.lectern.processor.ConfigProcessor.BoundType;
+import me.machinemaker.lectern.processor.ConfigProcessor.Validator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Writes the source of a generated binder. Every type is written with
+ * its fully qualified name so the config classes can't shadow them.
+ */
+final class BinderWriter {
+
+    private static final String CONFIG_BINDER = "me.machinemaker.lectern.ConfigBinder";
+    private static final String SECTION_NODE = "me.machinemaker.lectern.SectionNode";
+    private static final String VALUE_VALIDATOR = "me.machinemaker.lectern.validations.ValueValidator";
+
+    private final Writer writer;
+    private final Types types;
+
+    BinderWriter(@NotNull Writer writer, @NotNull Types types) {
+        this.writer = writer;
+        this.types = types;
+    }
+
+    void write(@NotNull String packageName, @NotNull String binderName, @NotNull List<BoundType> boundTypes) throws IOException {
+        if (!packageName.isEmpty()) {
+            this.line(0, "package " + packageName + ";");
+            this.line(0, "");
+        }
+        this.line(0, "@javax.annotation.processing.Generated(\"" + ConfigProcessor.class.getName() + "\")");
+        this.writeBinder(0, "final class " + binderName, binderName, 0, boundTypes);
+    }
+
+    private void writeBinder(int indent, @NotNull String declaration, @NotNull String constructorName, int index, @NotNull List<BoundType> boundTypes) throws IOException {
+        final BoundType boundType = boundTypes.get(index);
+        final String typeName = boundType.type().getQualifiedName().toString();
+        this.line(indent, declaration + " extends " + CONFIG_BINDER + "<" + typeName + "> {");
+        this.line(0, "");
+
+        final List<BoundField> fields = boundType.fields();
+        for (int i = 0; i < fields.size(); i++) {
+            final BoundField field = fields.get(i);
+            if (field.isSection()) {
+                this.line(indent + 1, "private final " + sectionBinderName(field.sectionIndex()) + " binder" + i + " = new " + sectionBinderName(field.sectionIndex()) + "();");
+            } else {
+                this.line(indent + 1, "private final java.util.List<" + VALUE_VALIDATOR + "<?>> validators" + i + ";");
+                if (!field.field().asType().getKind().isPrimitive()) {
+                    this.line(indent + 1, "private final java.util.function.Function<java.lang.Object, java.lang.Object> coercion" + i + " = coercion(" + this.typeName(this.types.erasure(field.field().asType())) + ".class);");
+                }
+            }
+            this.line(indent + 1, "private final java.util.Map<java.lang.String, java.lang.Object> meta" + i + ";");
+        }
+        this.line(0, "");
+
+        this.line(indent + 1, constructorName + "() {");
+        this.line(indent + 2, "super(" + typeName + ".class);");
+        for (int i = 0; i < fields.size(); i++) {
+            final BoundField field = fields.get(i);
+            final String fieldName = literal(field.field().getSimpleName().toString());
+            if (!field.isSection()) {
+                final StringJoiner validators = new StringJoiner(", ", "java.util.List.of(", ")");
+                for (Validator validator : field.validators()) {
+                    validators.add("this.validator(new " + validator.validatorType().getQualifiedName() + "(), " + fieldName + ", " + validator.annotationType().getQualifiedName() + ".class)");
+                }
+                this.line(indent + 2, "this.validators" + i + " = " + validators + ";");
+            }
+            final StringJoiner meta = new StringJoiner(", ", "this.meta(", ")");
+            meta.add(fieldName);
+            for (TypeElement annotationType : field.meta()) {
+                meta.add(annotationType.getQualifiedName() + ".class");
+            }
+            this.line(indent + 2, "this.meta" + i + " = " + meta + ";");
+        }
+        this.line(indent + 1, "}");
+        this.line(0, "");
+
+        this.line(indent + 1, "@Override");
+        this.line(indent + 1, "public void createSchema(" + typeName + " instance, " + SECTION_NODE + " sectionNode) {");
+        this.line(indent + 2, "sectionNode.clear();");
+        for (int i = 0; i < fields.size(); i++) {
+            final BoundField field = fields.get(i);
+            final String name = field.field().getSimpleName().toString();
+            if (field.isSection()) {
+                final String sectionType = boundTypes.get(field.sectionIndex()).type().getQualifiedName().toString();
+                this.sectionInstance(indent + 2, name, sectionType);
+                this.line(indent + 2, "this.binder" + i + ".createSchema(instance." + name + ", this.section(sectionNode, " + literal(field.key()) + ", " + literal(field.description()) + ", this.meta" + i + "));");
+            } else {
+                this.line(indent + 2, "this.value(sectionNode, " + literal(name) + ", " + literal(field.key()) + ", " + literal(field.description()) + ", instance." + name + ", value -> instance." + name + " = " + this.convert(field, i, "value") + ", this.validators" + i + ", this.meta" + i + ");");
+            }
+        }
+        this.line(indent + 1, "}");
+        this.line(0, "");
+
+        this.line(indent + 1, "@Override");
+        this.line(indent + 1, "public void loadFields(" + typeName + " instance, " + SECTION_NODE + " sectionNode) {");
+        for (int i = 0; i < fields.size(); i++) {
+            final BoundField field = fields.get(i);
+            final String name = field.field().getSimpleName().toString();
+            if (field.isSection()) {
+                final String sectionType = boundTypes.get(field.sectionIndex()).type().getQualifiedName().toString();
+                this.sectionInstance(indent + 2, name, sectionType);
+                this.line(indent + 2, "this.binder" + i + ".loadFields(instance." + name + ", sectionNode(sectionNode, " + literal(field.key()) + "));");
+            } else if (unboxed(field) != null) {
+                this.line(indent + 2, "instance." + name + " = this.get" + unboxed(field) + "(sectionNode, " + literal(field.key()) + ");");
+            } else {
+                this.line(indent + 2, "instance." + name + " = " + this.convert(field, i, "valueNode(sectionNode, " + literal(field.key()) + ").value()") + ";");
+            }
+        }
+        this.line(indent + 1, "}");
+        this.line(0, "");
+
+        this.line(indent + 1, "@Override");
+        this.line(indent + 1, "public void loadConfigTree(" + typeName + " instance, " + SECTION_NODE + " sectionNode) {");
+        for (int i = 0; i < fields.size(); i++) {
+            final BoundField field = fields.get(i);
+            final String name = field.field().getSimpleName().toString();
+            if (field.isSection()) {
+                this.line(indent + 2, "this.binder" + i + ".loadConfigTree(instance." + name + ", sectionNode(sectionNode, " + literal(field.key()) + "));");
+            } else if (unboxed(field) != null) {
+                this.line(indent + 2, "this.set" + unboxed(field) + "(sectionNode, " + literal(field.key()) + ", instance." + name + ");");
+            } else {
+                this.line(indent + 2, "this.setValue(sectionNode, " + literal(field.key()) + ", instance." + name + ");");
+            }
+        }
+        this.line(indent + 1, "}");
+
+        if (index == 0) {
+            for (int i = 1; i < boundTypes.size(); i++) {
+                this.line(0, "");
+                this.writeBinder(indent + 1, "private static final class " + sectionBinderName(i), sectionBinderName(i), i, boundTypes);
+            }
+        }
+        this.line(indent, "}");
+    }
+
+    /**
+     * Writes the creation of a section instance, if the field doesn't have one yet.
+     * Existing instances are reused, so references to them stay valid.
+     */
+    private void sectionInstance(int indent, @NotNull String name, @NotNull String sectionType) throws IOException {
+        this.line(indent, "if (instance." + name + " == null) {");
+        this.line(indent + 1, "instance." + name + " = new " + sectionType + "();");
+        this.line(indent, "}");
+    }
+
+    /**
+     * Gets the suffix of the binder methods that copy a field
+     * to and from its node without boxing.
+     *
+     * @return the suffix or null if the field type is boxed
+     */
+    private static @Nullable String unboxed(@NotNull BoundField field) {
+        return switch (field.field().asType().getKind()) {
+            case BOOLEAN -> "Boolean";
+            case INT -> "Int";
+            case LONG -> "Long";
+            case DOUBLE -> "Double";
+            default -> null;
+        };
+    }
+
+    private @NotNull String convert(@NotNull BoundField field, int index, @NotNull String value) {
+        final TypeMirror type = field.field().asType();
+        final String key = literal(field.key());
+        return switch (type.getKind()) {
+            case BOOLEAN -> "this.toBoolean(" + value + ", " + key + ")";
+            case CHAR -> "this.toChar(" + value + ", " + key + ")";
+            case BYTE -> "this.toByte(" + value + ", " + key + ")";
+            case SHORT -> "this.toShort(" + value + ", " + key + ")";
+            case INT -> "this.toInt(" + value + ", " + key + ")";
+            case LONG -> "this.toLong(" + value + ", " + key + ")";
+            case FLOAT -> "this.toFloat(" + value + ", " + key + ")";
+            case DOUBLE -> "this.toDouble(" + value + ", " + key + ")";
+            default -> "this.<" + this.typeName(type) + ">cast(" + value + ", this.coercion" + index + ", " + key + ")";
+        };
+    }
+
+    private @NotNull String typeName(@NotNull TypeMirror type) {
+        return switch (type.getKind()) {
+            case ARRAY -> this.typeName(((ArrayType) type).getComponentType()) + "[]";
+            case DECLARED -> {
+                final DeclaredType declaredType = (DeclaredType) type;
+                final String name = ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+                if (declaredType.getTypeArguments().isEmpty()) {
+                    yield name;
+                }
+                final StringJoiner arguments = new StringJoiner(", ", name + "<", ">");
+                for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+                    arguments.add(this.typeName(typeArgument));
+                }
+                yield arguments.toString();
+            }
+            case WILDCARD -> {
+                final WildcardType wildcardType = (WildcardType) type;
+                if (wildcardType.getExtendsBound() != null) {
+                    yield "? extends " + this.typeName(wildcardType.getExtendsBound());
+                } else if (wildcardType.getSuperBound() != null) {
+                    yield "? super " + this.typeName(wildcardType.getSuperBound());
+                }
+                yield "?";
+            }
+            default -> type.getKind().name().toLowerCase(java.util.Locale.ROOT);
+        };
+    }
+
+    private static @NotNull String sectionBinderName(int index) {
+        return "SectionBinder" + index;
+    }
+
+    static @NotNull String literal(@Nullable String value) {
+        if (value == null) {
+            return "null";
+        }
+        final StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    private void line(int indent, @NotNull String line) throws IOException {
+        if (!line.isEmpty()) {
+            this.writer.write("    ".repeat(indent));
+            this.writer.write(line);
+        }
+        this.writer.write('\n');
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.processor;
+
+import me.machinemaker.lectern.BaseConfig;
+import me.machinemaker.lectern.ConfigBinder;
+import me.machinemaker.lectern.annotations.Configuration;
+import me.machinemaker.lectern.annotations.ConfigurationSection;
+import me.machinemaker.lectern.annotations.Description;
+import me.machinemaker.lectern.annotations.Key;
+import me.machinemaker.lectern.annotations.Meta;
+import me.machinemaker.lectern.annotations.validations.Validation;
+import me.machinemaker.lectern.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@link ConfigBinder} for each class annotated with an
+ * annotation annotated with {@link Configuration}. Classes which can't be
+ * bound with plain field access (private or final fields, generic
+ * fields, overridden schema methods, etc.) are skipped and bound at
+ * runtime instead.
+ */
+@SupportedAnnotationTypes("*")
+public final class ConfigProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            this.processType(type);
+        }
+        return false;
+    }
+
+    private void processType(@NotNull TypeElement type) {
+        if (type.getKind() == ElementKind.CLASS && this.isConfig(type)) {
+            try {
+                this.generate(type);
+            } catch (IneligibleException e) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Not generating a binder for " + type.getQualifiedName() + ": " + e.getMessage() + ". It will be bound at runtime instead.", e.element);
+            } catch (IOException e) {
+                this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write binder for " + type.getQualifiedName() + ": " + e.getMessage(), type);
+            }
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            this.processType(nested);
+        }
+    }
+
+    private boolean isConfig(@NotNull TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().getAnnotation(Configuration.class) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate(@NotNull TypeElement type) throws IneligibleException, IOException {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new IneligibleException("the class is abstract", type);
+        }
+        this.checkSchemaMethods(type);
+        final List<BoundType> boundTypes = new ArrayList<>();
+        this.collect(type, boundTypes);
+
+        final PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        final String binderName = binderName(type);
+        final JavaFileObject file = this.processingEnv.getFiler().createSourceFile(packageName.isEmpty() ? binderName : packageName + "." + binderName, type);
+        try (Writer writer = file.openWriter()) {
+            new BinderWriter(writer, this.processingEnv.getTypeUtils()).write(packageName, binderName, boundTypes);
+        }
+    }
+
+    private void checkSchemaMethods(@NotNull TypeElement type) throws IneligibleException {
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals(BaseConfig.class.getCanonicalName())) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                final String name = method.getSimpleName().toString();
+                if (name.equals("createDefaultSectionNodeSchema") || name.equals("setupValueNodeSchema")) {
+                    throw new IneligibleException(name + " is overridden", method);
+                }
+            }
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+        }
+    }
+
+    private int collect(@NotNull TypeElement type, @NotNull List<BoundType> boundTypes) throws IneligibleException {
+        this.checkAccessible(type, type);
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new IneligibleException("the class is generic", type);
+        }
+        final int index = boundTypes.size();
+        final List<BoundField> fields = new ArrayList<>();
+        final BoundType boundType = new BoundType(type, fields);
+        boundTypes.add(boundType);
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                throw new IneligibleException(field.getSimpleName() + " is private", field);
+            }
+            if (modifiers.contains(Modifier.FINAL)) {
+                throw new IneligibleException(field.getSimpleName() + " is final", field);
+            }
+            final List<TypeElement> meta = new ArrayList<>();
+            for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+                final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                if (annotationType.getAnnotation(Meta.class) != null && isRuntimeRetained(annotationType)) {
+                    meta.add(annotationType);
+                }
+            }
+            final TypeElement sectionType = this.sectionType(type, field.asType());
+            if (sectionType != null) {
+                this.checkNoArgsConstructor(sectionType, field);
+                final ConfigurationSection section = sectionType.getAnnotation(ConfigurationSection.class);
+                fields.add(new BoundField(field, section.path(), section.description(), meta, List.of(), this.collect(sectionType, boundTypes)));
+            } else {
+                this.checkBindable(field, field.asType());
+                final Key key = field.getAnnotation(Key.class);
+                final Description description = field.getAnnotation(Description.class);
+                fields.add(new BoundField(field,
+                        key != null ? key.value() : StringUtils.camelCaseToHyphenSnakeCase(field.getSimpleName().toString()),
+                        description != null ? description.value() : null,
+                        meta,
+                        this.validators(field),
+                        -1));
+            }
+        }
+        return index;
+    }
+
+    private @Nullable TypeElement sectionType(@NotNull TypeElement type, @NotNull TypeMirror fieldType) {
+        if (fieldType.getKind() == TypeKind.DECLARED) {
+            final Element element = ((DeclaredType) fieldType).asElement();
+            if (element.getEnclosingElement().equals(type) && element.getAnnotation(ConfigurationSection.class) != null) {
+                return (TypeElement) element;
+            }
+        }
+        return null;
+    }
+
+    private @NotNull List<Validator> validators(@NotNull VariableElement field) throws IneligibleException {
+        final List<Validator> validators = new ArrayList<>();
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (!isRuntimeRetained(annotationType)) {
+                continue;
+            }
+            for (AnnotationMirror meta : annotationType.getAnnotationMirrors()) {
+                if (!((TypeElement) meta.getAnnotationType().asElement()).getQualifiedName().contentEquals(Validation.class.getCanonicalName())) {
+                    continue;
+                }
+                for (var entry : meta.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        final TypeElement validatorType = (TypeElement) ((DeclaredType) entry.getValue().getValue()).asElement();
+                        this.checkAccessible(validatorType, field);
+                        this.checkNoArgsConstructor(validatorType, field);
+                        validators.add(new Validator(validatorType, annotationType));
+                    }
+                }
+            }
+        }
+        return validators;
+    }
+
+    private static boolean isRuntimeRetained(@NotNull TypeElement annotationType) {
+        final Retention retention = annotationType.getAnnotation(Retention.class);
+        return retention != null && retention.value() == RetentionPolicy.RUNTIME;
+    }
+
+    private void checkAccessible(@NotNull TypeElement type, @NotNull Element from) throws IneligibleException {
+        final boolean samePackage = this.processingEnv.getElementUtils().getPackageOf(type).equals(this.processingEnv.getElementUtils().getPackageOf(from));
+        Element current = type;
+        while (current instanceof TypeElement typeElement) {
+            if (typeElement.getModifiers().contains(Modifier.PRIVATE) || (!samePackage && !typeElement.getModifiers().contains(Modifier.PUBLIC))) {
+                throw new IneligibleException(typeElement.getQualifiedName() + " is not accessible", from);
+            }
+            if (typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC) && typeElement.getKind() == ElementKind.CLASS && !typeElement.getEnclosingElement().getKind().isInterface()) {
+                throw new IneligibleException(typeElement.getQualifiedName() + " is not static", typeElement);
+            }
+            if (typeElement.getNestingKind() == NestingKind.LOCAL || typeElement.getNestingKind() == NestingKind.ANONYMOUS) {
+                throw new IneligibleException(typeElement + " is not a member class", typeElement);
+            }
+            current = typeElement.getEnclosingElement();
+        }
+    }
+
+    private void checkNoArgsConstructor(@NotNull TypeElement type, @NotNull Element from) throws IneligibleException {
+        final boolean samePackage = this.processingEnv.getElementUtils().getPackageOf(type).equals(this.processingEnv.getElementUtils().getPackageOf(from));
+        for (ExecutableElement ctor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (ctor.getParameters().isEmpty() && (samePackage ? !ctor.getModifiers().contains(Modifier.PRIVATE) : ctor.getModifiers().contains(Modifier.PUBLIC))) {
+                return;
+            }
+        }
+        throw new IneligibleException(type.getQualifiedName() + " does not have an accessible no-args constructor", from);
+    }
+
+    private void checkBindable(@NotNull VariableElement field, @NotNull TypeMirror type) throws IneligibleException {
+        switch (type.getKind()) {
+            case ARRAY -> this.checkBindable(field, ((ArrayType) type).getComponentType());
+            case DECLARED -> {
+                final DeclaredType declaredType = (DeclaredType) type;
+                this.checkAccessible((TypeElement) declaredType.asElement(), field);
+                for (TypeMirror typeArgument : declaredType.getTypeArguments()) {
+                    this.checkBindable(field, typeArgument);
+                }
+            }
+            case WILDCARD -> {
+                final WildcardType wildcardType = (WildcardType) type;
+                if (wildcardType.getExtendsBound() != null) {
+                    this.checkBindable(field, wildcardType.getExtendsBound());
+                }
+                if (wildcardType.getSuperBound() != null) {
+                    this.checkBindable(field, wildcardType.getSuperBound());
+                }
+            }
+            case BOOLEAN, BYTE, SHORT, INT, LONG, CHAR, FLOAT, DOUBLE -> {
+            }
+            default -> throw new IneligibleException("the type of " + field.getSimpleName() + " is not supported", field);
+        }
+    }
+
+    static @NotNull String binderName(@NotNull TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement enclosingType) {
+            name.insert(0, enclosingType.getSimpleName() + "_");
+            enclosing = enclosingType.getEnclosingElement();
+        }
+        return name + ConfigBinder.BINDER_SUFFIX;
+    }
+
+    record BoundType(@NotNull TypeElement type, @NotNull List<BoundField> fields) {
+    }
+
+    record BoundField(@NotNull VariableElement field, @NotNull String key, @Nullable String description, @NotNull List<TypeElement> meta, @NotNull List<Validator> validators, int sectionIndex) {
+
+        boolean isSection() {
+            return this.sectionIndex >= 0;
+        }
+    }
+
+    record Validator(@NotNull TypeElement validatorType, @NotNull TypeElement annotationType) {
+    }
+
+    static final class IneligibleException extends Exception {
+
+        static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        IneligibleException(@NotNull String message, @NotNull Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * GNU General Public License v3
+ *
+ * lectern, a configuration utility
+ *
+ * Copyright (C) 2021 Machine_Maker
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, version 3.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package me.machinemaker.lectern.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigProcessorTest {
+
+    static final String ANNOTATION = """
+            package test;
+
+            import me.machinemaker.lectern.ConfigurationNode;
+            import me.machinemaker.lectern.annotations.Configuration;
+            import me.machinemaker.lectern.supplier.ConfigurationSupplier;
+
+            import java.lang.annotation.Retention;
+            import java.lang.annotation.RetentionPolicy;
+            import java.nio.file.Path;
+
+            @Retention(RetentionPolicy.RUNTIME)
+            @Configuration(supplier = TestConfig.Supplier.class)
+            @interface TestConfig {
+
+                class Supplier implements ConfigurationSupplier<TestConfig> {
+
+                    @Override
+                    public ConfigurationNode createConfiguration(Path parentDir, TestConfig annotation) {
+                        throw new UnsupportedOperationException();
+                    }
+                }
+            }
+            """;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void testBinderGeneration() throws IOException {
+        assertTrue(this.compile(source("test.Config", """
+                package test;
+
+                import me.machinemaker.lectern.BaseConfig;
+                import me.machinemaker.lectern.annotations.ConfigurationSection;
+                import me.machinemaker.lectern.annotations.Description;
+                import me.machinemaker.lectern.annotations.validations.Size;
+                import me.machinemaker.lectern.annotations.validations.numbers.Positive;
+
+                import java.util.List;
+                import java.util.Map;
+
+                @TestConfig
+                class Config extends BaseConfig {
+
+                    @Positive
+                    @Description("a \\"quoted\\" description")
+                    int someValue = 1;
+
+                    Map<String, List<Integer>> map;
+
+                    Section section;
+
+                    @ConfigurationSection(path = "section")
+                    static class Section {
+
+                        @Size(max = 3)
+                        List<String> list = List.of();
+
+                        float[] floats;
+                    }
+                }
+                """)));
+        final String binder = Files.readString(this.output.resolve("test").resolve("Config_LecternBinder.java"));
+        assertTrue(binder.contains("instance.someValue = this.getInt(sectionNode, \"some-value\");"));
+        assertTrue(binder.contains("this.setInt(sectionNode, \"some-value\", instance.someValue);"));
+        assertTrue(binder.contains("if (instance.section == null) {"));
+        assertTrue(binder.contains("this.<java.util.Map<java.lang.String, java.util.List<java.lang.Integer>>>cast(valueNode(sectionNode, \"map\").value(), this.coercion1, \"map\")"));
+        assertTrue(binder.contains("coercion1 = coercion(java.util.Map.class);"));
+        assertTrue(binder.contains("new me.machinemaker.lectern.annotations.validations.Size.Validator()"));
+        assertTrue(binder.contains("private static final class SectionBinder1 extends me.machinemaker.lectern.ConfigBinder<test.Config.Section>"));
+    }
+
+    @Test
+    void testIneligibleConfig() throws IOException {
+        assertTrue(this.compile(source("test.PrivateConfig", """
+                package test;
+
+                import me.machinemaker.lectern.BaseConfig;
+
+                @TestConfig
+                class PrivateConfig extends BaseConfig {
+
+                    private String value;
+                }
+                """)));
+        assertFalse(Files.exists(this.output.resolve("test").resolve("PrivateConfig_LecternBinder.java")));
+    }
+
+    private boolean compile(JavaFileObject source) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final List<String> options = List.of("-classpath", System.getProperty("java.class.path"), "-d", this.output.toString(), "-s", this.output.toString());
+        final JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, List.of(source("test.TestConfig", ANNOTATION), source));
+        task.setProcessors(List.of(new ConfigProcessor()));
+        return task.call();
+    }
+
+    private static JavaFileObject source(String name, String source) {
+        return new SimpleJavaFileObject(URI.create("string:///" + name.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+}
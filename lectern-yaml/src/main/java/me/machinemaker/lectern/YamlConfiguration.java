@@ -22,15 +22,14 @@ package me.machinemaker.lectern;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
-import me.machinemaker.lectern.contexts.InvalidKeyHandler;
 import org.jetbrains.annotations.NotNull;
 
 import java.nio.file.Path;
 
 public final class YamlConfiguration extends ConfigurationNode {
 
-    private YamlConfiguration(@NotNull Path file, @NotNull ObjectMapper mapper, @NotNull InvalidKeyHandler invalidKeyHandler, char commentChar, int indentSize) {
-        super(file, mapper, invalidKeyHandler, commentChar, indentSize);
+    private YamlConfiguration(@NotNull Builder builder, @NotNull ObjectMapper mapper) {
+        super(builder, mapper, '#', builder.indentSize);
     }
 
     public static @NotNull Builder builder(@NotNull Path path) {
@@ -60,8 +59,8 @@ public final class YamlConfiguration extends ConfigurationNode {
 
         @Override
         public @NotNull YamlConfiguration build() {
-            ObjectMapper mapper = yamlMapper != null ? yamlMapper : new ObjectMapper(YAML_FACTORY);
-            return new YamlConfiguration(this.file(), mapper, this.invalidKeyHandler(), '#', this.indentSize);
+            ObjectMapper mapper = yamlMapper != null ? yamlMapper : ObjectMappers.shared(YAML_FACTORY);
+            return new YamlConfiguration(this, mapper);
         }
     }
 }
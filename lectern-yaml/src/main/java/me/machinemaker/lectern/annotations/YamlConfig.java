@@ -20,6 +20,7 @@
 package me.machinemaker.lectern.annotations;
 
 import me.machinemaker.lectern.ConfigurationNode;
+import me.machinemaker.lectern.SaveMode;
 import me.machinemaker.lectern.contexts.InvalidKeyHandler;
 import me.machinemaker.lectern.supplier.ConfigurationSupplier;
 import org.jetbrains.annotations.NotNull;
@@ -43,11 +44,13 @@ public @interface YamlConfig {
 
     InvalidKeyHandler.Preset invalidKeyHandler() default InvalidKeyHandler.Preset.EXCEPTION;
 
+    SaveMode saveMode() default SaveMode.DIRECT;
+
     class SimpleYamlConfigurationSupplier implements ConfigurationSupplier<YamlConfig> {
 
         @Override
         public @NotNull ConfigurationNode createConfiguration(@NotNull Path parentDir, @NotNull YamlConfig configuration) {
-            return me.machinemaker.lectern.YamlConfiguration.builder(parentDir.resolve(configuration.fileName())).withInvalidKeyHandler(configuration.invalidKeyHandler()).withIndentSize(configuration.indent()).build();
+            return me.machinemaker.lectern.YamlConfiguration.builder(parentDir.resolve(configuration.fileName())).withInvalidKeyHandler(configuration.invalidKeyHandler()).withIndentSize(configuration.indent()).withSaveMode(configuration.saveMode()).build();
         }
     }
 }
@@ -33,6 +33,7 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class YamlObjectConfigTest {
@@ -48,6 +49,11 @@ class YamlObjectConfigTest {
         assertIterableEquals(List.of(YamlConfigurationTest.Fruit.APPLE, YamlConfigurationTest.Fruit.ORANGE), config.section1.fruitList);
     }
 
+    @Test
+    void testGeneratedBinder() {
+        assertNotNull(ConfigBinder.find(Config.class));
+    }
+
     @Test
     void testSettingValue() {
         Config config = new Config();
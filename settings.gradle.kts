@@ -1,3 +1,4 @@
 rootProject.name = "lectern"
 include("lectern-core")
 include("lectern-yaml")
+include("lectern-processor")